@@ -0,0 +1,109 @@
+package com.hansoleee.basicspringbatch.benchmark;
+
+import com.hansoleee.basicspringbatch.entity.Teacher;
+import com.hansoleee.basicspringbatch.job.AsyncItemStage;
+import com.hansoleee.basicspringbatch.job.ProcessorCompositeJobConfiguration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.batch.integration.async.AsyncItemProcessor;
+import org.springframework.batch.integration.async.AsyncItemWriter;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * compositeProcessor 를 동기로 실행할 때와 AsyncItemStage 로 실행할 때의 chunk 처리량 비교
+ * cpuTokens 로 processor 의 CPU 작업량을, writeMillis 로 writer 의 I/O 대기 시간을 흉내낸다.
+ *
+ * ./gradlew jmh -PjmhArgs="AsyncItemStageBenchmark -p poolSize=8"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AsyncItemStageBenchmark {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    @Param({"0", "10000"})
+    public int cpuTokens;
+
+    @Param({"0", "5"})
+    public int writeMillis;
+
+    @Param({"1", "4", "8"})
+    public int poolSize;
+
+    private ConfigurableApplicationContext context;
+    private ThreadPoolTaskExecutor taskExecutor;
+    private ItemProcessor<Teacher, String> processor;
+    private ItemWriter<String> writer;
+    private AsyncItemProcessor<Teacher, String> asyncProcessor;
+    private AsyncItemWriter<String> asyncWriter;
+    private List<Teacher> teachers;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        context = BenchmarkContext.start();
+        ItemProcessor<Teacher, String> compositeProcessor = context.getBean(
+                ProcessorCompositeJobConfiguration.BEAN_PREFIX + "compositeProcessor", ItemProcessor.class);
+
+        processor = teacher -> {
+            Blackhole.consumeCPU(cpuTokens);
+            return compositeProcessor.process(teacher);
+        };
+        writer = items -> {
+            if (writeMillis > 0) {
+                Thread.sleep(writeMillis);
+            }
+        };
+
+        taskExecutor = AsyncItemStage.boundedExecutor("benchmark-", poolSize);
+        taskExecutor.initialize();
+        asyncProcessor = AsyncItemStage.processor(processor, taskExecutor);
+        asyncWriter = AsyncItemStage.writer(writer);
+
+        teachers = new ArrayList<>(CHUNK_SIZE);
+        for (long i = 1; i <= CHUNK_SIZE; i++) {
+            Teacher teacher = new Teacher();
+            teacher.setId(i);
+            teacher.setName("teacher" + i);
+            teachers.add(teacher);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        taskExecutor.shutdown();
+        context.close();
+    }
+
+    @Benchmark
+    public void sync(RowCounter counter) throws Exception {
+        List<String> items = new ArrayList<>(CHUNK_SIZE);
+        for (Teacher teacher : teachers) {
+            items.add(processor.process(teacher));
+        }
+        writer.write(items);
+        counter.rows += CHUNK_SIZE;
+    }
+
+    @Benchmark
+    public void async(RowCounter counter) throws Exception {
+        List<Future<String>> items = new ArrayList<>(CHUNK_SIZE);
+        for (Teacher teacher : teachers) {
+            items.add(asyncProcessor.process(teacher));
+        }
+        asyncWriter.write(items);
+        counter.rows += CHUNK_SIZE;
+    }
+}
@@ -0,0 +1,103 @@
+package com.hansoleee.basicspringbatch.benchmark;
+
+import com.hansoleee.basicspringbatch.BasicSpringBatchApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 벤치마크용 Spring Context를 in-memory H2로 띄우고 테스트 데이터를 넣는다.
+ */
+public final class BenchmarkContext {
+
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... args) {
+        List<String> arguments = new ArrayList<>();
+        arguments.add("--spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        arguments.add("--spring.batch.job.enabled=false");
+        arguments.add("--spring.jpa.hibernate.ddl-auto=create");
+        arguments.add("--logging.level.org.springframework.batch=WARN");
+        arguments.add("--logging.level.org.hibernate.SQL=WARN");
+        arguments.addAll(List.of(args));
+
+        return new SpringApplicationBuilder(BasicSpringBatchApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments.toArray(new String[0]));
+    }
+
+    public static void seedPay(DataSource dataSource, int rows) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Timestamp txDateTime = Timestamp.valueOf(LocalDateTime.of(2021, 9, 1, 0, 0));
+
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 1; i <= rows; i++) {
+            batch.add(new Object[]{(long) (i % 5000), "trade" + i, txDateTime});
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate("insert into pay (amount, tx_name, tx_date_time) values (?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into pay (amount, tx_name, tx_date_time) values (?, ?, ?)", batch);
+        }
+    }
+
+    public static void seedTeachers(DataSource dataSource, int teachers, int studentsPerTeacher) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        List<Object[]> teacherBatch = new ArrayList<>(teachers);
+        List<Object[]> studentBatch = new ArrayList<>(INSERT_BATCH_SIZE);
+        long studentId = 1;
+        for (long teacherId = 1; teacherId <= teachers; teacherId++) {
+            teacherBatch.add(new Object[]{teacherId, "teacher" + teacherId});
+            for (int i = 0; i < studentsPerTeacher; i++) {
+                studentBatch.add(new Object[]{studentId, "student" + studentId, teacherId});
+                studentId++;
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into teacher (teacher_id, name) values (?, ?)", teacherBatch);
+        for (int from = 0; from < studentBatch.size(); from += INSERT_BATCH_SIZE) {
+            jdbcTemplate.batchUpdate("insert into student (student_id, name, teacher_id) values (?, ?, ?)",
+                    studentBatch.subList(from, Math.min(from + INSERT_BATCH_SIZE, studentBatch.size())));
+        }
+    }
+
+    /**
+     * sales 는 엔티티가 없어 테이블을 직접 만든다.
+     * rows 건을 startDate 부터 days 일에 고르게 나누어 넣는다.
+     */
+    public static void seedSales(DataSource dataSource, int rows, LocalDate startDate, int days) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists sales (" +
+                "id bigint not null auto_increment primary key, " +
+                "amount bigint not null, " +
+                "order_date date, " +
+                "order_no varchar(255))");
+
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 1; i <= rows; i++) {
+            batch.add(new Object[]{(long) (i % 1000), Date.valueOf(startDate.plusDays(i % days)), "order" + i});
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate("insert into sales (amount, order_date, order_no) values (?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into sales (amount, order_date, order_no) values (?, ?, ?)", batch);
+        }
+    }
+}
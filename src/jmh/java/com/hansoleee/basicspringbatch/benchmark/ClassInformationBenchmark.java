@@ -0,0 +1,84 @@
+package com.hansoleee.basicspringbatch.benchmark;
+
+import com.hansoleee.basicspringbatch.entity.ClassInformation;
+import com.hansoleee.basicspringbatch.entity.Teacher;
+import com.hansoleee.basicspringbatch.job.ClassInformationJobConfiguration;
+import com.hansoleee.basicspringbatch.job.TxProcessorJobConfiguration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 반 정보 한 chunk(CHUNK_SIZE 명의 Teacher)를 만드는 비용 비교
+ * entity: txProcessorJob (Teacher + studentList 엔티티 로딩 후 size())
+ * projection: classInformationJob (group by 결과를 ClassInformation으로 바로 매핑)
+ *
+ * chunk당 메모리 사용량은 gc 프로파일러의 gc.alloc.rate.norm (bytes/op)으로 확인한다.
+ * ./gradlew jmh -PjmhArgs="ClassInformationBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClassInformationBenchmark {
+
+    private static final int CHUNK_SIZE = 100;
+
+    @Param({"10", "1000"})
+    public int studentsPerTeacher;
+
+    private ConfigurableApplicationContext context;
+    private ItemStreamReader<Teacher> entityReader;
+    private ItemProcessor<Teacher, ClassInformation> entityProcessor;
+    private ItemStreamReader<ClassInformation> projectionReader;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        context = BenchmarkContext.start("--chunkSize=" + CHUNK_SIZE);
+        BenchmarkContext.seedTeachers(context.getBean(DataSource.class), CHUNK_SIZE, studentsPerTeacher);
+
+        entityReader = context.getBean(TxProcessorJobConfiguration.BEAN_PREFIX + "reader", ItemStreamReader.class);
+        entityProcessor = context.getBean(TxProcessorJobConfiguration.class).processor();
+        projectionReader = context.getBean(ClassInformationJobConfiguration.BEAN_PREFIX + "reader", ItemStreamReader.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void entity(Blackhole blackhole) throws Exception {
+        entityReader.open(new ExecutionContext());
+        try {
+            Teacher teacher;
+            while ((teacher = entityReader.read()) != null) {
+                blackhole.consume(entityProcessor.process(teacher));
+            }
+        } finally {
+            entityReader.close();
+        }
+    }
+
+    @Benchmark
+    public void projection(Blackhole blackhole) throws Exception {
+        projectionReader.open(new ExecutionContext());
+        try {
+            ClassInformation classInformation;
+            while ((classInformation = projectionReader.read()) != null) {
+                blackhole.consume(classInformation);
+            }
+        } finally {
+            projectionReader.close();
+        }
+    }
+}
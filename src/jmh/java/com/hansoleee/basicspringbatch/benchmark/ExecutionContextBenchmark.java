@@ -0,0 +1,90 @@
+package com.hansoleee.basicspringbatch.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * chunk commit 마다 Job Repository 에 하는 작업(updateExecutionContext + update(StepExecution))의 시간 비교
+ * changed: JdbcPagingItemReader 처럼 chunk 마다 read.count / start.after 가 바뀌는 경우
+ * unchanged: Reader 상태가 바뀌지 않는 경우 (skipUnchanged=true 이면 ExecutionContext UPDATE 를 건너뛴다)
+ *
+ * ./gradlew jmh -PjmhArgs="ExecutionContextBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutionContextBenchmark {
+
+    @Param({"json", "compact"})
+    public String serializer;
+
+    @Param({"false", "true"})
+    public boolean skipUnchanged;
+
+    private ConfigurableApplicationContext context;
+    private JobRepository jobRepository;
+    private TransactionTemplate transactionTemplate;
+    private StepExecution stepExecution;
+    private long lastId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start(
+                "--batch.context.serializer=" + serializer,
+                "--batch.context.skip-unchanged=" + skipUnchanged);
+        jobRepository = context.getBean(JobRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        JobExecution jobExecution = jobRepository.createJobExecution("executionContextBenchmark",
+                new JobParametersBuilder().addString("run.id", UUID.randomUUID().toString()).toJobParameters());
+        stepExecution = jobExecution.createStepExecution("executionContextBenchmarkStep");
+        jobRepository.add(stepExecution);
+
+        ExecutionContext executionContext = stepExecution.getExecutionContext();
+        executionContext.putString("batch.taskletType", "org.springframework.batch.core.step.item.ChunkOrientedTasklet");
+        executionContext.putString("batch.stepType", "org.springframework.batch.core.step.tasklet.TaskletStep");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void changed() {
+        lastId += 10;
+        ExecutionContext executionContext = stepExecution.getExecutionContext();
+        executionContext.putInt("jdbcPagingItemReader.read.count", (int) lastId);
+        Map<String, Object> startAfter = new LinkedHashMap<>();
+        startAfter.put("id", lastId);
+        executionContext.put("jdbcPagingItemReader.start.after", startAfter);
+        commitChunk();
+    }
+
+    @Benchmark
+    public void unchanged() {
+        commitChunk();
+    }
+
+    private void commitChunk() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jobRepository.updateExecutionContext(stepExecution);
+            jobRepository.update(stepExecution);
+        });
+    }
+}
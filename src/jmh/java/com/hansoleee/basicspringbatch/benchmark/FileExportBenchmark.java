@@ -0,0 +1,98 @@
+package com.hansoleee.basicspringbatch.benchmark;
+
+import com.hansoleee.basicspringbatch.entity.Pay;
+import com.hansoleee.basicspringbatch.job.ExportRecordEncoders;
+import com.hansoleee.basicspringbatch.job.MappedFileItemWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.file.FlatFileItemWriter;
+import org.springframework.batch.item.file.builder.FlatFileItemWriterBuilder;
+import org.springframework.core.io.FileSystemResource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pay rows 건을 chunkSize 단위로 파일에 쓰는 시간 비교 (1 op = rows 건 전체, chunk 마다 update 로 offset 저장)
+ * flatFile: FlatFileItemWriter + DelimitedLineAggregator (CSV)
+ * mappedCsv / mappedBinary: MappedFileItemWriter + ExportRecordEncoders
+ * DB 를 읽지 않고 같은 Pay 목록을 반복해서 쓰므로 Writer 의 비용만 비교한다.
+ *
+ * ./gradlew jmh -PjmhArgs="FileExportBenchmark -p rows=10000000 -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FileExportBenchmark {
+
+    @Param({"10000000"})
+    public int rows;
+
+    @Param({"1000"})
+    public int chunkSize;
+
+    @Param({"flatFile", "mappedCsv", "mappedBinary"})
+    public String writer;
+
+    private Path file;
+    private List<Pay> pays;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        file = Files.createTempFile("file-export-benchmark", ".out");
+        pays = new ArrayList<>(chunkSize);
+        LocalDateTime txDateTime = LocalDateTime.of(2021, 9, 1, 0, 0);
+        for (long i = 1; i <= chunkSize; i++) {
+            pays.add(new Pay(i, i % 5000, "trade" + i, txDateTime));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void export(RowCounter counter) throws Exception {
+        ItemStreamWriter<Pay> itemWriter = createWriter();
+        ExecutionContext executionContext = new ExecutionContext();
+        itemWriter.open(executionContext);
+        for (int written = 0; written < rows; written += chunkSize) {
+            itemWriter.write(pays);
+            itemWriter.update(executionContext);
+        }
+        itemWriter.close();
+        counter.rows += rows;
+    }
+
+    private ItemStreamWriter<Pay> createWriter() throws Exception {
+        switch (writer) {
+            case "flatFile":
+                FlatFileItemWriter<Pay> flatFileItemWriter = new FlatFileItemWriterBuilder<Pay>()
+                        .name("flatFile")
+                        .resource(new FileSystemResource(file))
+                        .delimited()
+                        .names("id", "amount", "txName", "txDateTime")
+                        .headerCallback(header -> header.write("id,amount,tx_name,tx_date_time"))
+                        .build();
+                flatFileItemWriter.afterPropertiesSet();
+                return flatFileItemWriter;
+            case "mappedCsv":
+                MappedFileItemWriter<Pay> csvWriter = new MappedFileItemWriter<>(file, ExportRecordEncoders.payCsv());
+                csvWriter.setHeader(ExportRecordEncoders.PAY_CSV_HEADER);
+                return csvWriter;
+            case "mappedBinary":
+                return new MappedFileItemWriter<>(file, ExportRecordEncoders.payBinary());
+            default:
+                throw new IllegalArgumentException("Unknown writer: " + writer);
+        }
+    }
+}
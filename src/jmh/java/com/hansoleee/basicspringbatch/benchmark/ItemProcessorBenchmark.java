@@ -0,0 +1,60 @@
+package com.hansoleee.basicspringbatch.benchmark;
+
+import com.hansoleee.basicspringbatch.entity.Teacher;
+import com.hansoleee.basicspringbatch.job.ProcessorCompositeJobConfiguration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * processorCompositeJob 의 compositeProcessor 로 1 op = 1 chunk 를 처리한다.
+ * rows/s 는 RowCounter 의 rows 항목, row 당 할당량은 -prof gc 의 gc.alloc.rate.norm / chunkSize 로 확인한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ItemProcessorBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int chunkSize;
+
+    private ConfigurableApplicationContext context;
+    private ItemProcessor<Teacher, String> compositeProcessor;
+    private List<Teacher> teachers;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        context = BenchmarkContext.start("--chunkSize=" + chunkSize);
+        compositeProcessor = context.getBean(ProcessorCompositeJobConfiguration.BEAN_PREFIX + "compositeProcessor", ItemProcessor.class);
+
+        teachers = new ArrayList<>(chunkSize);
+        for (long i = 1; i <= chunkSize; i++) {
+            Teacher teacher = new Teacher();
+            teacher.setId(i);
+            teacher.setName("teacher" + i);
+            teachers.add(teacher);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void compositeProcessor(RowCounter counter, Blackhole blackhole) throws Exception {
+        for (Teacher teacher : teachers) {
+            blackhole.consume(compositeProcessor.process(teacher));
+        }
+        counter.rows += chunkSize;
+    }
+}
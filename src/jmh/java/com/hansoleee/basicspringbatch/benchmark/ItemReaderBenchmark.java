@@ -0,0 +1,170 @@
+package com.hansoleee.basicspringbatch.benchmark;
+
+import com.hansoleee.basicspringbatch.entity.Pay;
+import com.hansoleee.basicspringbatch.entity.SalesSum;
+import com.hansoleee.basicspringbatch.job.BatchJdbcUnitTestConfiguration;
+import com.hansoleee.basicspringbatch.job.JpaKeysetItemReader;
+import com.hansoleee.basicspringbatch.job.PayColumns;
+import com.hansoleee.basicspringbatch.job.PayColumnsItemReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * job 패키지의 Reader 들을 그대로 사용해 1 op = 1 chunk 를 읽는다.
+ * rows/s 는 RowCounter 의 rows 항목, row 당 할당량은 -prof gc 의 gc.alloc.rate.norm / chunkSize 로 확인한다.
+ *
+ * 기본값(rows=100000)은 인메모리 H2 에 pay / sales 를 rows 건씩 넣으므로 기본 heap 으로도 돈다.
+ * 큰 데이터는 -p 로 지정하고 heap 을 늘려서 실행한다. (10M 은 pay + sales 합쳐 2천만 건)
+ *
+ * ./gradlew jmh -PjmhArgs="ItemReaderBenchmark -p rows=100000 -p chunkSize=1000 -prof gc"
+ * ./gradlew jmh -PjmhArgs="ItemReaderBenchmark -p rows=1000000,10000000 -p chunkSize=1000 -p fetchSize=1000 -jvmArgs -Xmx8g"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ItemReaderBenchmark {
+
+    private static final LocalDate SALES_START_DATE = LocalDate.of(2021, 9, 1);
+    private static final int SALES_DAYS = 30;
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"10", "100", "1000"})
+    public int chunkSize;
+
+    @Param({"10", "100", "1000"})
+    public int fetchSize;
+
+    private ConfigurableApplicationContext context;
+    private JdbcCursorItemReader<Pay> jdbcCursorItemReader;
+    private JdbcPagingItemReader<Pay> jdbcPagingItemReader;
+    private JpaKeysetItemReader<Pay> jpaPagingItemReader;
+    private JdbcPagingItemReader<SalesSum> salesSumReader;
+    private PayColumnsItemReader payColumnsItemReader;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start("--chunkSize=" + chunkSize);
+        DataSource dataSource = context.getBean(DataSource.class);
+        BenchmarkContext.seedPay(dataSource, rows);
+        BenchmarkContext.seedSales(dataSource, rows, SALES_START_DATE, SALES_DAYS);
+
+        jdbcCursorItemReader = context.getBean("jdbcCursorItemReader", JdbcCursorItemReader.class);
+        jdbcCursorItemReader.setFetchSize(fetchSize);
+
+        jdbcPagingItemReader = context.getBean("jdbcPagingItemReader", JdbcPagingItemReader.class);
+        jdbcPagingItemReader.setPageSize(chunkSize);
+        jdbcPagingItemReader.setFetchSize(fetchSize);
+        jdbcPagingItemReader.afterPropertiesSet();
+
+        jpaPagingItemReader = context.getBean("jpaPagingItemReader", JpaKeysetItemReader.class);
+        jpaPagingItemReader.setPageSize(chunkSize);
+
+        BatchJdbcUnitTestConfiguration salesJob = new BatchJdbcUnitTestConfiguration(null, null, dataSource);
+        salesJob.setChunkSize(chunkSize);
+        salesSumReader = salesJob.reader(SALES_START_DATE.format(BatchJdbcUnitTestConfiguration.FORMATTER));
+        salesSumReader.setFetchSize(fetchSize);
+        salesSumReader.afterPropertiesSet();
+
+        payColumnsItemReader = new PayColumnsItemReader(dataSource, chunkSize);
+
+        jdbcCursorItemReader.open(new ExecutionContext());
+        jdbcPagingItemReader.open(new ExecutionContext());
+        jpaPagingItemReader.open(new ExecutionContext());
+        payColumnsItemReader.open(new ExecutionContext());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcCursorItemReader.close();
+        jdbcPagingItemReader.close();
+        jpaPagingItemReader.close();
+        payColumnsItemReader.close();
+        context.close();
+    }
+
+    @Benchmark
+    public void jdbcCursorItemReader(RowCounter counter, Blackhole blackhole) throws Exception {
+        counter.rows += readChunk(jdbcCursorItemReader, blackhole);
+    }
+
+    @Benchmark
+    public void jdbcPagingItemReader(RowCounter counter, Blackhole blackhole) throws Exception {
+        counter.rows += readChunk(jdbcPagingItemReader, blackhole);
+    }
+
+    @Benchmark
+    public void jpaPagingItemReader(RowCounter counter, Blackhole blackhole) throws Exception {
+        counter.rows += readChunk(jpaPagingItemReader, blackhole);
+    }
+
+    /**
+     * chunkSize 건을 Pay 객체 없이 PayColumns 한 묶음으로 읽는다. (fetchSize 는 chunkSize 와 같다)
+     */
+    @Benchmark
+    public void payColumnsItemReader(RowCounter counter, Blackhole blackhole) throws Exception {
+        PayColumns columns = payColumnsItemReader.read();
+        if (columns == null) {
+            payColumnsItemReader.close();
+            payColumnsItemReader.open(new ExecutionContext());
+            columns = payColumnsItemReader.read();
+        }
+        blackhole.consume(columns);
+        counter.rows += columns.size();
+    }
+
+    /**
+     * 하루치 sales 를 group by 로 집계해 읽는다. rows 는 집계를 위해 읽은 sales 건수
+     */
+    @Benchmark
+    public void salesSumReader(RowCounter counter, Blackhole blackhole) throws Exception {
+        salesSumReader.open(new ExecutionContext());
+        try {
+            SalesSum salesSum;
+            while ((salesSum = salesSumReader.read()) != null) {
+                blackhole.consume(salesSum);
+            }
+        } finally {
+            salesSumReader.close();
+        }
+        counter.rows += rows / SALES_DAYS;
+    }
+
+    /**
+     * chunkSize 만큼 읽는다. 끝까지 읽으면 처음부터 다시 읽는다.
+     */
+    private int readChunk(ItemStreamReader<?> reader, Blackhole blackhole) throws Exception {
+        int count = 0;
+        boolean reopened = false;
+        while (count < chunkSize) {
+            Object item = reader.read();
+            if (item == null) {
+                if (reopened) {
+                    break;
+                }
+                reader.close();
+                reader.open(new ExecutionContext());
+                reopened = true;
+                continue;
+            }
+            blackhole.consume(item);
+            reopened = false;
+            count++;
+        }
+        return count;
+    }
+}
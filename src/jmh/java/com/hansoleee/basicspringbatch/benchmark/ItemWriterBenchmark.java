@@ -0,0 +1,126 @@
+package com.hansoleee.basicspringbatch.benchmark;
+
+import com.hansoleee.basicspringbatch.entity.Pay;
+import com.hansoleee.basicspringbatch.entity.Pay2;
+import com.hansoleee.basicspringbatch.job.Pay2BulkItemWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * job 패키지의 Writer 들로 1 op = 1 chunk 를 하나의 트랜잭션에서 쓴다.
+ * rows/s 는 RowCounter 의 rows 항목, row 당 할당량은 -prof gc 의 gc.alloc.rate.norm / chunkSize 로 확인한다.
+ *
+ * ./gradlew jmh -PjmhArgs="ItemWriterBenchmark -p chunkSize=1000 -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ItemWriterBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int chunkSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private ItemWriter<Pay> jdbcBatchItemWriter;
+    private ItemWriter<Pay2> jpaItemWriter;
+    private ItemWriter<Pay> multiRowInsertWriter;
+    private ItemWriter<Pay> csvReadWriter;
+    private ItemWriter<Pay2> statelessSessionWriter;
+    private List<Pay> pays;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        context = BenchmarkContext.start("--chunkSize=" + chunkSize);
+        transactionTemplate = new TransactionTemplate(context.getBean("transactionManager", PlatformTransactionManager.class));
+        jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+
+        jdbcBatchItemWriter = context.getBean("jdbcBatchItemWriter", ItemWriter.class);
+        jpaItemWriter = context.getBean("jpaItemWriter", ItemWriter.class);
+        DataSource dataSource = context.getBean(DataSource.class);
+        multiRowInsertWriter = new Pay2BulkItemWriter(dataSource, Pay2BulkItemWriter.Strategy.MULTI_ROW_INSERT);
+        csvReadWriter = new Pay2BulkItemWriter(dataSource, Pay2BulkItemWriter.Strategy.CSVREAD);
+        statelessSessionWriter = context.getBean("jpaItemWriterStatelessWriter", ItemWriter.class);
+
+        pays = new ArrayList<>(chunkSize);
+        LocalDateTime txDateTime = LocalDateTime.of(2021, 9, 1, 0, 0);
+        for (long i = 1; i <= chunkSize; i++) {
+            pays.add(new Pay(i, i % 5000, "trade" + i, txDateTime));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("truncate table pay2");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void jdbcBatchItemWriter(RowCounter counter) {
+        writeChunk(jdbcBatchItemWriter, pays);
+        counter.rows += chunkSize;
+    }
+
+    @Benchmark
+    public void multiRowInsert(RowCounter counter) {
+        writeChunk(multiRowInsertWriter, pays);
+        counter.rows += chunkSize;
+    }
+
+    @Benchmark
+    public void csvRead(RowCounter counter) {
+        writeChunk(csvReadWriter, pays);
+        counter.rows += chunkSize;
+    }
+
+    /**
+     * JpaItemWriter 는 persist 한 엔티티에 id 를 채우기 때문에 매번 새 Pay2 를 만든다. (jpaItemProcessor 와 동일)
+     */
+    @Benchmark
+    public void jpaItemWriter(RowCounter counter) {
+        List<Pay2> items = pays.stream()
+                .map(pay -> new Pay2(pay.getAmount(), pay.getTxName(), pay.getTxDateTime()))
+                .collect(Collectors.toList());
+        writeChunk(jpaItemWriter, items);
+        counter.rows += chunkSize;
+    }
+
+    @Benchmark
+    public void statelessSessionWriter(RowCounter counter) {
+        List<Pay2> items = pays.stream()
+                .map(pay -> new Pay2(pay.getAmount(), pay.getTxName(), pay.getTxDateTime()))
+                .collect(Collectors.toList());
+        writeChunk(statelessSessionWriter, items);
+        counter.rows += chunkSize;
+    }
+
+    private <T> void writeChunk(ItemWriter<T> writer, List<T> items) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                writer.write(items);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,108 @@
+package com.hansoleee.basicspringbatch.benchmark;
+
+import com.hansoleee.basicspringbatch.entity.Pay;
+import com.hansoleee.basicspringbatch.entity.PayJdbcMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.batch.item.database.ItemSqlParameterSourceProvider;
+import org.springframework.batch.item.database.support.BeanPropertyItemSqlParameterSourceProvider;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1M 건 기준 BeanPropertyRowMapper / beanMapped() 와 PayJdbcMapper 의 초당 처리 건수 비교
+ * (@OperationsPerInvocation 으로 ops/s = rows/s)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JdbcMapperBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final String SELECT_PAY = "SELECT id, amount, tx_name, tx_date_time FROM pay";
+    private static final String[] INSERT_PARAMETERS = {"amount", "txName", "txDateTime"};
+
+    private EmbeddedDatabase dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private List<Pay> pays;
+
+    private final RowMapper<Pay> beanPropertyRowMapper = new BeanPropertyRowMapper<>(Pay.class);
+    private final ItemSqlParameterSourceProvider<Pay> beanPropertyProvider = new BeanPropertyItemSqlParameterSourceProvider<>();
+    private final PayJdbcMapper payJdbcMapper = new PayJdbcMapper();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table pay (id bigint auto_increment primary key, amount bigint, tx_name varchar(255), tx_date_time timestamp)");
+        BenchmarkContext.seedPay(dataSource, ROWS);
+
+        pays = new ArrayList<>(ROWS);
+        LocalDateTime txDateTime = LocalDateTime.of(2021, 9, 1, 0, 0);
+        for (long i = 1; i <= ROWS; i++) {
+            pays.add(new Pay(i, i % 5000, "trade" + i, txDateTime));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void beanPropertyRowMapper(Blackhole blackhole) {
+        jdbcTemplate.query(SELECT_PAY, rs -> {
+            blackhole.consume(beanPropertyRowMapper.mapRow(rs, 0));
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void payJdbcRowMapper(Blackhole blackhole) {
+        jdbcTemplate.query(SELECT_PAY, rs -> {
+            blackhole.consume(payJdbcMapper.mapRow(rs, 0));
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void beanMappedParameterSource(Blackhole blackhole) {
+        for (Pay pay : pays) {
+            bind(beanPropertyProvider.createSqlParameterSource(pay), blackhole);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void payJdbcParameterSource(Blackhole blackhole) {
+        for (Pay pay : pays) {
+            bind(payJdbcMapper.createSqlParameterSource(pay), blackhole);
+        }
+    }
+
+    /**
+     * NamedParameterJdbcTemplate 이 insert 파라미터를 바인딩할 때처럼 이름으로 값을 꺼낸다.
+     */
+    private void bind(SqlParameterSource parameterSource, Blackhole blackhole) {
+        for (String name : INSERT_PARAMETERS) {
+            blackhole.consume(parameterSource.getValue(name));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.hansoleee.basicspringbatch.benchmark;
+
+import com.hansoleee.basicspringbatch.job.BatchTaskExecutorFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * I/O 대기가 대부분인 partition 을 partitions 개 동시에 실행할 때 TaskExecutor 별 처리 시간 비교 (1 op = partition 전체 완료)
+ * partition 하나는 roundTrips 번 connection 을 빌려 pay 를 조회하고, latencyMillis 만큼 connection 을 잡은 채 기다린다. (DB 응답 대기 흉내)
+ *
+ * - cores: CPU 코어 수 만큼의 platform thread pool (기존 방식)
+ * - platform / virtual: BatchTaskExecutorFactory (ConnectionPoolGovernor 가 Hikari pool 크기 - 1 로 동시 실행 제한, virtual 은 JDK 21 이상)
+ * rows/s 는 RowCounter 의 rows 항목(조회 횟수)으로 확인한다.
+ *
+ * ./gradlew jmh -PjmhArgs="PartitionTaskExecutorBenchmark -p poolSize=64"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PartitionTaskExecutorBenchmark {
+
+    @Param({"8", "64", "512"})
+    public int partitions;
+
+    @Param({"cores", "platform", "virtual"})
+    public String executor;
+
+    @Param({"64"})
+    public int poolSize;
+
+    @Param({"10"})
+    public int roundTrips;
+
+    @Param({"2"})
+    public int latencyMillis;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private TaskExecutor taskExecutor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("--spring.datasource.hikari.maximum-pool-size=" + poolSize);
+        DataSource dataSource = context.getBean(DataSource.class);
+        BenchmarkContext.seedPay(dataSource, 10_000);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        if ("cores".equals(executor)) {
+            int cores = Runtime.getRuntime().availableProcessors();
+            ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+            pool.setCorePoolSize(cores);
+            pool.setMaxPoolSize(cores);
+            pool.setThreadNamePrefix("cores-");
+            pool.initialize();
+            taskExecutor = pool;
+            return;
+        }
+
+        BatchTaskExecutorFactory factory = new BatchTaskExecutorFactory(dataSource,
+                "virtual".equals(executor) ? BatchTaskExecutorFactory.Mode.VIRTUAL : BatchTaskExecutorFactory.Mode.PLATFORM,
+                new SimpleMeterRegistry()); // context 의 factory 와 meter 가 겹치지 않도록 따로 둔다.
+        taskExecutor = factory.create(executor + "-", partitions);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (taskExecutor instanceof ThreadPoolTaskExecutor) {
+            ((ThreadPoolTaskExecutor) taskExecutor).shutdown();
+        } else if (taskExecutor instanceof BatchTaskExecutorFactory.BoundedTaskExecutor) {
+            ((BatchTaskExecutorFactory.BoundedTaskExecutor) taskExecutor).destroy();
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public void runPartitions(RowCounter counter) throws Exception {
+        CountDownLatch done = new CountDownLatch(partitions);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int partition = 0; partition < partitions; partition++) {
+            long minId = partition * 10L;
+            taskExecutor.execute(() -> {
+                try {
+                    for (int i = 0; i < roundTrips; i++) {
+                        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                            try (PreparedStatement ps = connection.prepareStatement("SELECT COUNT(*) FROM pay WHERE id BETWEEN ? AND ?")) {
+                                ps.setLong(1, minId);
+                                ps.setLong(2, minId + 100);
+                                ps.executeQuery().close();
+                                Thread.sleep(latencyMillis);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            return null;
+                        });
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        if (failure.get() != null) {
+            throw new IllegalStateException(failure.get());
+        }
+        counter.rows += (long) partitions * roundTrips;
+    }
+}
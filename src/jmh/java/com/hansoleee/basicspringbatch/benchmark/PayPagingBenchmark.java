@@ -0,0 +1,104 @@
+package com.hansoleee.basicspringbatch.benchmark;
+
+import com.hansoleee.basicspringbatch.entity.Pay;
+import com.hansoleee.basicspringbatch.job.JpaKeysetItemReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.database.JpaPagingItemReader;
+import org.springframework.batch.item.database.builder.JpaPagingItemReaderBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1, 1,000, 10,000 번째 페이지 한 장을 읽는 시간 비교
+ * offset: JpaPagingItemReader (setFirstResult -> OFFSET)
+ * keyset: JpaKeysetItemReader (WHERE p.id > :lastId)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayPagingBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int PAGES = 10_001;
+
+    @Param({"1", "1000", "10000"})
+    public int page;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private int startIndex;
+    private Long startAfterId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        DataSource dataSource = context.getBean(DataSource.class);
+        BenchmarkContext.seedPay(dataSource, PAGE_SIZE * PAGES);
+
+        startIndex = (page - 1) * PAGE_SIZE;
+        if (startIndex > 0) {
+            startAfterId = new JdbcTemplate(dataSource)
+                    .queryForObject("select id from pay order by id limit 1 offset ?", Long.class, startIndex - 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void offset(Blackhole blackhole) throws Exception {
+        JpaPagingItemReader<Pay> reader = new JpaPagingItemReaderBuilder<Pay>()
+                .name("offset")
+                .entityManagerFactory(entityManagerFactory)
+                .pageSize(PAGE_SIZE)
+                .queryString("SELECT p FROM Pay p ORDER BY p.id")
+                .build();
+
+        ExecutionContext executionContext = new ExecutionContext();
+        executionContext.putInt("offset.read.count", startIndex);
+        reader.open(executionContext);
+        try {
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                blackhole.consume(reader.read());
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Benchmark
+    public void keyset(Blackhole blackhole) throws Exception {
+        JpaKeysetItemReader<Pay> reader = new JpaKeysetItemReader<>();
+        reader.setName("keyset");
+        reader.setEntityManagerFactory(entityManagerFactory);
+        reader.setPageSize(PAGE_SIZE);
+        reader.setQueryString("SELECT p FROM Pay p WHERE p.id > :lastId ORDER BY p.id");
+        reader.setIdExtractor(Pay::getId);
+        reader.afterPropertiesSet();
+
+        ExecutionContext executionContext = new ExecutionContext();
+        if (startAfterId != null) {
+            executionContext.putLong("keyset.last.id", startAfterId);
+        }
+        reader.open(executionContext);
+        try {
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                blackhole.consume(reader.read());
+            }
+        } finally {
+            reader.close();
+        }
+    }
+}
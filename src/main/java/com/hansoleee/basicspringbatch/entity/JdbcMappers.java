@@ -0,0 +1,18 @@
+package com.hansoleee.basicspringbatch.entity;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+final class JdbcMappers {
+
+    private JdbcMappers() {
+    }
+
+    /**
+     * NULL 컬럼은 0이 아닌 null로 매핑한다. (BeanPropertyRowMapper와 동일)
+     */
+    static Long getLong(ResultSet rs, int index) throws SQLException {
+        long value = rs.getLong(index);
+        return rs.wasNull() ? null : value;
+    }
+}
@@ -0,0 +1,40 @@
+package com.hansoleee.basicspringbatch.entity;
+
+import org.springframework.batch.item.database.ItemSqlParameterSourceProvider;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * BeanPropertyRowMapper / beanMapped() 대신 사용하는 Pay2 전용 매퍼
+ * 리플렉션과 컬럼명 변환(snake_case -> camelCase) 없이 컬럼 순서(index)로 매핑한다.
+ *
+ * 조회 쿼리는 반드시 COLUMNS 순서로 select 해야 한다.
+ * 파라미터 이름: :id, :amount, :txName, :txDateTime
+ */
+public class Pay2JdbcMapper implements RowMapper<Pay2>, ItemSqlParameterSourceProvider<Pay2> {
+
+    public static final String COLUMNS = "id, amount, tx_name, tx_date_time";
+
+    @Override
+    public Pay2 mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new Pay2(
+                JdbcMappers.getLong(rs, 1),
+                JdbcMappers.getLong(rs, 2),
+                rs.getString(3),
+                rs.getObject(4, LocalDateTime.class));
+    }
+
+    @Override
+    public SqlParameterSource createSqlParameterSource(Pay2 item) {
+        return new MapSqlParameterSource()
+                .addValue("id", item.getId())
+                .addValue("amount", item.getAmount())
+                .addValue("txName", item.getTxName())
+                .addValue("txDateTime", item.getTxDateTime());
+    }
+}
@@ -0,0 +1,35 @@
+package com.hansoleee.basicspringbatch.entity;
+
+import org.springframework.batch.item.database.ItemSqlParameterSourceProvider;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * BeanPropertyRowMapper / beanMapped() 대신 사용하는 SalesSum 전용 매퍼
+ * 리플렉션과 컬럼명 변환(snake_case -> camelCase) 없이 컬럼 순서(index)로 매핑한다.
+ *
+ * 조회 쿼리는 반드시 order_date, amount_sum 순서로 select 해야 한다.
+ * 파라미터 이름: :orderDate, :amountSum
+ */
+public class SalesSumJdbcMapper implements RowMapper<SalesSum>, ItemSqlParameterSourceProvider<SalesSum> {
+
+    @Override
+    public SalesSum mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return SalesSum.builder()
+                .orderDate(rs.getObject(1, LocalDate.class))
+                .amountSum(rs.getLong(2))
+                .build();
+    }
+
+    @Override
+    public SqlParameterSource createSqlParameterSource(SalesSum item) {
+        return new MapSqlParameterSource()
+                .addValue("orderDate", item.getOrderDate())
+                .addValue("amountSum", item.getAmountSum());
+    }
+}
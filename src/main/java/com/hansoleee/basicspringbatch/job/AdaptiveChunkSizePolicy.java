@@ -0,0 +1,151 @@
+package com.hansoleee.basicspringbatch.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.repeat.context.RepeatContextSupport;
+import org.springframework.batch.repeat.policy.CompletionPolicySupport;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
+
+/**
+ * chunk 의 write + commit 시간을 측정해서 다음 chunk 크기를 조절하는 CompletionPolicy
+ *
+ * item 한 건당 write + commit 시간으로 targetMillis 안에 끝낼 수 있는 크기를 계산하고
+ * 한 번에 2배 이상 커지거나 절반 이하로 작아지지 않게 [minChunkSize, maxChunkSize] 범위에서 바꾼다.
+ * chunk 가 실패(rollback)하면 lock 경합 등을 의심해서 절반으로 줄인다.
+ *
+ * addChunkSizeListener 로 Reader 의 pageSize 를 현재 chunk 크기에 맞출 수 있다. (JpaKeysetItemReader.setPageSize: 다음 페이지부터 적용)
+ * Reader 의 값을 바꾸므로 singleton bean 이 아닌 Step 실행마다 새로 만든 Reader 에만 등록한다.
+ * cursor Reader 의 fetchSize 는 open 할 때만 적용되므로 등록하지 않는다.
+ *
+ * ex) --job.name=jpaItemWriterJob chunkPolicy=adaptive targetChunkMillis=500
+ */
+@Slf4j
+public class AdaptiveChunkSizePolicy extends CompletionPolicySupport implements ChunkListener, ItemWriteListener<Object> {
+
+    public static final int DEFAULT_MIN_CHUNK_SIZE = 10;
+    public static final int DEFAULT_MAX_CHUNK_SIZE = 10_000;
+
+    private final int minChunkSize;
+    private final int maxChunkSize;
+    private final long targetMillis;
+
+    private final List<IntConsumer> chunkSizeListeners = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<long[]> writeStart = new ThreadLocal<>(); // {시작 nanoTime, item 수}
+    private volatile int chunkSize;
+
+    public AdaptiveChunkSizePolicy(int initialChunkSize, long targetMillis) {
+        this(initialChunkSize, DEFAULT_MIN_CHUNK_SIZE, DEFAULT_MAX_CHUNK_SIZE, targetMillis);
+    }
+
+    public AdaptiveChunkSizePolicy(int initialChunkSize, int minChunkSize, int maxChunkSize, long targetMillis) {
+        this.minChunkSize = minChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.targetMillis = targetMillis;
+        this.chunkSize = clamp(initialChunkSize, minChunkSize, maxChunkSize);
+    }
+
+    /**
+     * chunk(this) 로 SimpleStepBuilder 를 만들고 측정에 필요한 Listener 로 등록한다.
+     */
+    public <I, O> SimpleStepBuilder<I, O> chunk(StepBuilder stepBuilder) {
+        SimpleStepBuilder<I, O> builder = stepBuilder.chunk(this);
+        builder.listener((ChunkListener) this);
+        builder.listener((ItemWriteListener<Object>) this);
+        return builder;
+    }
+
+    /**
+     * 등록 즉시 현재 chunk 크기로 한 번 호출되고, 이후 크기가 바뀔 때마다 호출된다.
+     */
+    public void addChunkSizeListener(IntConsumer listener) {
+        chunkSizeListeners.add(listener);
+        listener.accept(chunkSize);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    @Override
+    public RepeatContext start(RepeatContext parent) {
+        return new SizedRepeatContext(parent, chunkSize);
+    }
+
+    @Override
+    public boolean isComplete(RepeatContext context) {
+        return context.getStartedCount() >= ((SizedRepeatContext) context).size;
+    }
+
+    @Override
+    public void beforeWrite(List<?> items) {
+        writeStart.set(new long[]{System.nanoTime(), items.size()});
+    }
+
+    @Override
+    public void afterWrite(List<?> items) {
+    }
+
+    @Override
+    public void onWriteError(Exception exception, List<?> items) {
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        writeStart.remove();
+    }
+
+    /**
+     * commit 이 끝난 뒤 호출되므로 beforeWrite 부터 여기까지가 write + commit 시간이다.
+     */
+    @Override
+    public void afterChunk(ChunkContext context) {
+        long[] start = writeStart.get();
+        writeStart.remove();
+        if (start == null || start[1] == 0) {
+            return;
+        }
+
+        double millisPerItem = (System.nanoTime() - start[0]) / 1_000_000.0 / start[1];
+        int current = chunkSize;
+        int next = millisPerItem <= 0 ? current * 2 : (int) Math.min(Integer.MAX_VALUE, targetMillis / millisPerItem);
+        resize(clamp(next, current / 2, current * 2), millisPerItem);
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        writeStart.remove();
+        resize(chunkSize / 2, -1);
+    }
+
+    private synchronized void resize(int next, double millisPerItem) {
+        int size = clamp(next, minChunkSize, maxChunkSize);
+        if (size == chunkSize) {
+            return;
+        }
+        log.debug(">>>>> chunk size {} -> {} (ms/item={})", chunkSize, size, millisPerItem);
+        chunkSize = size;
+        chunkSizeListeners.forEach(listener -> listener.accept(size));
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static class SizedRepeatContext extends RepeatContextSupport {
+
+        private final int size;
+
+        SizedRepeatContext(RepeatContext parent, int size) {
+            super(parent);
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.hansoleee.basicspringbatch.job;
+
+import org.springframework.batch.integration.async.AsyncItemProcessor;
+import org.springframework.batch.integration.async.AsyncItemWriter;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * ItemProcessor를 별도 쓰레드 풀에서 실행하고 Writer에서 Future를 순서대로 꺼내 쓰는 비동기 단계
+ *
+ * chunk 쓰레드는 item을 풀에 넘기기만 하고, AsyncItemWriter가 Future.get()으로 결과를 기다린다.
+ * processor에서 발생한 예외는 Writer에서 다시 던져지므로 chunk 트랜잭션은 동기 방식과 똑같이 롤백된다.
+ * processor가 null을 반환한 item(filter)은 Writer에 전달되지 않는다.
+ */
+public final class AsyncItemStage {
+
+    private AsyncItemStage() {
+    }
+
+    public static <I, O> AsyncItemProcessor<I, O> processor(ItemProcessor<I, O> delegate, TaskExecutor taskExecutor) {
+        AsyncItemProcessor<I, O> processor = new AsyncItemProcessor<>();
+        processor.setDelegate(delegate);
+        processor.setTaskExecutor(taskExecutor);
+        return processor;
+    }
+
+    public static <O> AsyncItemWriter<O> writer(ItemWriter<O> delegate) {
+        AsyncItemWriter<O> writer = new AsyncItemWriter<>();
+        writer.setDelegate(delegate);
+        return writer;
+    }
+
+    /**
+     * poolSize 개의 쓰레드와 poolSize * 2 크기의 큐를 가진 쓰레드 풀
+     * 큐가 가득 차면 chunk 쓰레드가 직접 처리하여(CallerRunsPolicy) 대기 중인 item 수를 제한한다.
+     */
+    public static ThreadPoolTaskExecutor boundedExecutor(String threadNamePrefix, int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize * 2);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
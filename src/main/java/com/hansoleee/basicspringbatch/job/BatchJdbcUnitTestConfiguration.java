@@ -1,22 +1,24 @@
 package com.hansoleee.basicspringbatch.job;
 
 import com.hansoleee.basicspringbatch.entity.SalesSum;
+import com.hansoleee.basicspringbatch.entity.SalesSumJdbcMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepScope;
-import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
 import org.springframework.batch.item.database.JdbcPagingItemReader;
-import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
+import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
 import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
 import org.springframework.batch.item.database.support.SqlPagingQueryProviderFactoryBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
 
 import javax.sql.DataSource;
 import java.time.LocalDate;
@@ -47,15 +49,22 @@ public class BatchJdbcUnitTestConfiguration {
     @Bean(JOB_NAME)
     public Job job() throws Exception {
         return jobBuilderFactory.get(JOB_NAME)
-                .start(step())
+                .start(step(null))
                 .build();
     }
 
+    /**
+     * aggregation=stream 이면 sales 를 한 번만 읽으며 날짜별로 집계한다. (startDate ~ endDate 기간 지원)
+     * 기본값(query)은 orderDate 하루에 대해 group by 쿼리를 페이지마다 실행한다.
+     */
     @Bean(PREFIX_BEAN + "step")
-    public Step step() throws Exception {
+    @JobScope
+    public Step step(@Value("#{jobParameters[aggregation] ?: 'query'}") String aggregation) throws Exception {
+        ItemStreamReader<SalesSum> reader = "stream".equals(aggregation) ? streamReader(null, null) : reader(null);
+
         return stepBuilderFactory.get(PREFIX_BEAN + "step")
                 .<SalesSum, SalesSum>chunk(chunkSize)
-                .reader(reader(null))
+                .reader(reader)
                 .writer(writer())
                 .build();
     }
@@ -79,18 +88,40 @@ public class BatchJdbcUnitTestConfiguration {
                 .pageSize(chunkSize)
                 .fetchSize(chunkSize)
                 .dataSource(dataSource)
-                .rowMapper(new BeanPropertyRowMapper<>(SalesSum.class))
+                .rowMapper(new SalesSumJdbcMapper())
                 .queryProvider(queryProvider.getObject())
                 .parameterValues(params)
                 .build();
     }
 
-    @Bean(PREFIX_BEAN + "writer")
-    public JdbcBatchItemWriter<SalesSum> writer() {
-        return new JdbcBatchItemWriterBuilder<SalesSum>()
+    @Bean(PREFIX_BEAN + "streamReader")
+    @StepScope
+    public SalesSumAggregatingItemReader streamReader(
+            @Value("#{jobParameters[startDate] ?: jobParameters[orderDate]}") String startDate,
+            @Value("#{jobParameters[endDate] ?: jobParameters[startDate] ?: jobParameters[orderDate]}") String endDate) {
+        JdbcCursorItemReader<SalesSum> salesReader = new JdbcCursorItemReaderBuilder<SalesSum>()
+                .name(PREFIX_BEAN + "salesReader")
+                .fetchSize(chunkSize)
                 .dataSource(dataSource)
-                .sql("insert into sales_sum(order_date, amount_sum) values (:order_date, :amount_sum)")
-                .beanMapped()
+                .sql("select order_date, amount from sales where order_date between ? and ? order by order_date")
+                .queryArguments(LocalDate.parse(startDate, FORMATTER), LocalDate.parse(endDate, FORMATTER))
+                .rowMapper(new SalesSumJdbcMapper())
+                .saveState(false)
                 .build();
+
+        SalesSumAggregatingItemReader reader = new SalesSumAggregatingItemReader(salesReader);
+        reader.setName(PREFIX_BEAN + "streamReader");
+        return reader;
+    }
+
+    /**
+     * 같은 날짜를 다시 실행하면 기존 sales_sum 을 덮어쓴다. (INSERT / UPDATE 건수는 Step ExecutionContext 에 저장)
+     * 건수를 Writer 가 들고 있으므로 동시에 실행한 Step 끼리 섞이지 않도록 Step 마다 만든다.
+     * (DB 종류도 Step 이 시작될 때 확인하므로 지원하지 않는 DB 에서도 다른 Job 은 실행된다)
+     */
+    @Bean(PREFIX_BEAN + "writer")
+    @StepScope
+    public SalesSumUpsertItemWriter writer() {
+        return new SalesSumUpsertItemWriter(dataSource);
     }
 }
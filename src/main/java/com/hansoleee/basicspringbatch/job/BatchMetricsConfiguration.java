@@ -0,0 +1,51 @@
+package com.hansoleee.basicspringbatch.job;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Batch 메트릭 설정
+ * batch.metrics.file 을 지정하면 Step이 끝날 때마다 Prometheus text 형식으로 파일에 저장한다.
+ * ex) --batch.metrics.file=build/batch-metrics.prom
+ */
+@Configuration
+public class BatchMetricsConfiguration {
+
+    @Bean
+    public PrometheusMeterRegistry batchMeterRegistry() {
+        return new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    }
+
+    /**
+     * Spring Batch가 기본으로 남기는 spring.batch.* 메트릭은 Metrics.globalRegistry 로만 기록되므로 같이 수집하도록 연결한다.
+     * context 가 닫히면 연결을 끊어서 같은 JVM 의 다음 context(테스트 등)로 메트릭이 섞이지 않게 한다.
+     */
+    @Bean
+    public DisposableBean batchMeterRegistryBinding(PrometheusMeterRegistry batchMeterRegistry) {
+        Metrics.addRegistry(batchMeterRegistry);
+        return () -> Metrics.removeRegistry(batchMeterRegistry);
+    }
+
+    @Bean
+    public BatchMetricsListener batchMetricsListener(PrometheusMeterRegistry batchMeterRegistry,
+                                                     @Value("${batch.metrics.file:}") String exportFile) {
+        return new BatchMetricsListener(batchMeterRegistry, exportFile);
+    }
+
+    @Bean
+    @Primary
+    public StepBuilderFactory metricsStepBuilderFactory(JobRepository jobRepository,
+                                                        PlatformTransactionManager transactionManager,
+                                                        BatchMetricsListener batchMetricsListener) {
+        return new MetricsStepBuilderFactory(jobRepository, transactionManager, batchMetricsListener);
+    }
+}
@@ -0,0 +1,222 @@
+package com.hansoleee.basicspringbatch.job;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 모든 chunk Step에 자동으로 등록되는 메트릭 Listener (MetricsStepBuilderFactory 참고)
+ *
+ * chunk 마다 read / process / write / commit 시간을 Timer(histogram)로 기록하고
+ * Step이 끝나면 초당 처리 건수, filter 건수(processor가 null 반환), skip 건수를 기록한다.
+ * commit 시간은 write가 끝난 뒤부터 chunk 트랜잭션이 commit 될 때까지(ExecutionContext 저장 포함)이다.
+ *
+ * 멀티 쓰레드 Step에서도 사용할 수 있도록 chunk 단위 시간은 ThreadLocal에 모은다.
+ */
+@Slf4j
+public class BatchMetricsListener implements StepExecutionListener, ChunkListener,
+        ItemReadListener<Object>, ItemProcessListener<Object, Object>, ItemWriteListener<Object> {
+
+    private final MeterRegistry registry;
+    private final String exportFile;
+
+    private final ThreadLocal<ChunkTimes> chunkTimes = ThreadLocal.withInitial(ChunkTimes::new);
+    private final Map<Long, StepTimes> stepTimes = new ConcurrentHashMap<>();
+
+    public BatchMetricsListener(MeterRegistry registry, String exportFile) {
+        this.registry = registry;
+        this.exportFile = exportFile;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        stepTimes.put(stepExecution.getId(), new StepTimes());
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        Tags tags = tags(stepExecution);
+        long elapsedMillis = System.currentTimeMillis() - stepExecution.getStartTime().getTime();
+        double itemsPerSecond = stepExecution.getWriteCount() * 1000.0 / Math.max(elapsedMillis, 1);
+
+        DistributionSummary.builder("batch.step.items.per.second").tags(tags).register(registry).record(itemsPerSecond);
+        Counter.builder("batch.step.filter").tags(tags).register(registry).increment(stepExecution.getFilterCount());
+        Counter.builder("batch.step.skip").tags(tags).tag("phase", "read").register(registry).increment(stepExecution.getReadSkipCount());
+        Counter.builder("batch.step.skip").tags(tags).tag("phase", "process").register(registry).increment(stepExecution.getProcessSkipCount());
+        Counter.builder("batch.step.skip").tags(tags).tag("phase", "write").register(registry).increment(stepExecution.getWriteSkipCount());
+
+        StepTimes times = stepTimes.remove(stepExecution.getId());
+        if (times != null) {
+            log.info(">>>>> [{}] chunks={}, read={}ms, process={}ms, write={}ms, commit={}ms, items/s={}, filter={}, skip={}",
+                    stepExecution.getStepName(), times.chunks.sum(),
+                    toMillis(times.read), toMillis(times.process), toMillis(times.write), toMillis(times.commit),
+                    String.format("%.1f", itemsPerSecond), stepExecution.getFilterCount(), stepExecution.getSkipCount());
+        }
+        export();
+        return null;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        chunkTimes.get().reset();
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        ChunkTimes times = chunkTimes.get();
+        long commitNanos = times.writeEnd > 0 ? System.nanoTime() - times.writeEnd : 0;
+
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        Tags tags = tags(stepExecution);
+        timer("batch.chunk.read", tags).record(times.read, TimeUnit.NANOSECONDS);
+        timer("batch.chunk.process", tags).record(times.process, TimeUnit.NANOSECONDS);
+        timer("batch.chunk.write", tags).record(times.write, TimeUnit.NANOSECONDS);
+        timer("batch.chunk.commit", tags).record(commitNanos, TimeUnit.NANOSECONDS);
+
+        StepTimes total = stepTimes.get(stepExecution.getId());
+        if (total != null) {
+            total.chunks.increment();
+            total.read.add(times.read);
+            total.process.add(times.process);
+            total.write.add(times.write);
+            total.commit.add(commitNanos);
+        }
+        times.reset();
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        chunkTimes.get().reset();
+    }
+
+    @Override
+    public void beforeRead() {
+        chunkTimes.get().mark = System.nanoTime();
+    }
+
+    @Override
+    public void afterRead(Object item) {
+        ChunkTimes times = chunkTimes.get();
+        times.read += System.nanoTime() - times.mark;
+    }
+
+    @Override
+    public void onReadError(Exception ex) {
+        afterRead(null);
+    }
+
+    @Override
+    public void beforeProcess(Object item) {
+        chunkTimes.get().mark = System.nanoTime();
+    }
+
+    @Override
+    public void afterProcess(Object item, Object result) {
+        ChunkTimes times = chunkTimes.get();
+        times.process += System.nanoTime() - times.mark;
+    }
+
+    @Override
+    public void onProcessError(Object item, Exception e) {
+        afterProcess(item, null);
+    }
+
+    @Override
+    public void beforeWrite(List<?> items) {
+        chunkTimes.get().mark = System.nanoTime();
+    }
+
+    @Override
+    public void afterWrite(List<?> items) {
+        ChunkTimes times = chunkTimes.get();
+        times.writeEnd = System.nanoTime();
+        times.write += times.writeEnd - times.mark;
+    }
+
+    @Override
+    public void onWriteError(Exception exception, List<?> items) {
+        afterWrite(items);
+    }
+
+    private Timer timer(String name, Tags tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * 파티션 Worker Step(step:partitionN)은 같은 Step으로 묶는다.
+     */
+    private Tags tags(StepExecution stepExecution) {
+        String stepName = stepExecution.getStepName();
+        int partitionIndex = stepName.indexOf(':');
+        if (partitionIndex > 0) {
+            stepName = stepName.substring(0, partitionIndex);
+        }
+        return Tags.of("job", stepExecution.getJobExecution().getJobInstance().getJobName(), "step", stepName);
+    }
+
+    private void export() {
+        if (!StringUtils.hasText(exportFile) || !(registry instanceof PrometheusMeterRegistry)) {
+            return;
+        }
+        try {
+            Path path = Paths.get(exportFile);
+            Files.writeString(path, ((PrometheusMeterRegistry) registry).scrape());
+        } catch (IOException e) {
+            log.warn(">>>>> 메트릭 파일 저장 실패. file={}", exportFile, e);
+        }
+    }
+
+    private static long toMillis(LongAdder nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos.sum());
+    }
+
+    private static class ChunkTimes {
+        private long mark;
+        private long writeEnd;
+        private long read;
+        private long process;
+        private long write;
+
+        private void reset() {
+            mark = 0;
+            writeEnd = 0;
+            read = 0;
+            process = 0;
+            write = 0;
+        }
+    }
+
+    private static class StepTimes {
+        private final LongAdder chunks = new LongAdder();
+        private final LongAdder read = new LongAdder();
+        private final LongAdder process = new LongAdder();
+        private final LongAdder write = new LongAdder();
+        private final LongAdder commit = new LongAdder();
+    }
+}
@@ -1,6 +1,7 @@
 package com.hansoleee.basicspringbatch.job;
 
 import com.hansoleee.basicspringbatch.entity.SalesSum;
+import com.hansoleee.basicspringbatch.entity.SalesSumJdbcMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.configuration.annotation.StepScope;
@@ -10,7 +11,6 @@ import org.springframework.batch.item.database.support.SqlPagingQueryProviderFac
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
 
 import javax.sql.DataSource;
 import java.time.LocalDate;
@@ -57,7 +57,7 @@ public class BatchOnlyJdbcReaderTestConfiguration {
                 .pageSize(chunkSize)
                 .fetchSize(chunkSize)
                 .dataSource(dataSource)
-                .rowMapper(new BeanPropertyRowMapper<>(SalesSum.class))
+                .rowMapper(new SalesSumJdbcMapper())
                 .queryProvider(Objects.requireNonNull(queryProvider.getObject()))
                 .parameterValues(params)
                 .build();
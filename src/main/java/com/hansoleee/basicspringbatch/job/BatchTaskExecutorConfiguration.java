@@ -0,0 +1,25 @@
+package com.hansoleee.basicspringbatch.job;
+
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * partition / split / 멀티 쓰레드 Step 의 TaskExecutor 설정
+ * batch.task-executor.mode: auto(기본값) | virtual | platform (BatchTaskExecutorFactory 참고)
+ * 동시 실행 수는 ConnectionPoolGovernor 가 connection pool 크기에 맞춰 제한하고, 대기 시간은 batch.governor.wait 으로 남긴다.
+ * ex) --job.name=partitionJdbcBatchItemWriterJob gridSize=64 poolSize=64 --batch.task-executor.mode=virtual
+ */
+@Configuration
+public class BatchTaskExecutorConfiguration {
+
+    @Bean
+    public BatchTaskExecutorFactory batchTaskExecutorFactory(DataSource dataSource,
+                                                             PrometheusMeterRegistry batchMeterRegistry,
+                                                             @Value("${batch.task-executor.mode:auto}") String mode) {
+        return new BatchTaskExecutorFactory(dataSource, BatchTaskExecutorFactory.Mode.of(mode), batchMeterRegistry);
+    }
+}
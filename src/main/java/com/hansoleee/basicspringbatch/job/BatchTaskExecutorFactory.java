@@ -0,0 +1,202 @@
+package com.hansoleee.basicspringbatch.job;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * partition / split / 멀티 쓰레드 Step 에서 사용하는 TaskExecutor 를 만든다.
+ *
+ * - VIRTUAL: JDK 21 이상의 virtual thread 로 작업마다 쓰레드를 만든다. (JDBC 응답을 기다리는 동안 OS 쓰레드를 점유하지 않는다)
+ * - PLATFORM: concurrency 개의 쓰레드 풀 (쉬는 쓰레드는 60초 뒤 정리)
+ * - AUTO(기본값): JDK 21 이상이면 VIRTUAL, 아니면 PLATFORM (sourceCompatibility 11 이라 virtual thread 는 리플렉션으로 만든다)
+ *
+ * 어느 쪽이든 동시에 실행되는 작업 수를 TaskExecutor 별 Semaphore 로 concurrency 개로 제한하고,
+ * 작업이 쓰는 connection 수(connectionsPerTask)만큼 ConnectionPoolGovernor 에서 자리를 받은 뒤 실행한다.
+ * Governor 는 이 Factory 가 만든 모든 TaskExecutor 가 공유하므로 여러 Step 이 동시에 돌아도 Hikari pool 을 넘지 않는다.
+ * 자리가 없으면 작업을 넘기는 쪽(Step 쓰레드)이 기다린다.
+ * 만든 TaskExecutor 는 사용하는 쪽에서 destroy 한다. (Step 이 끝날 때 / JobScope, singleton bean 이면 scope 가 끝날 때)
+ * ex) --batch.task-executor.mode=platform
+ */
+@Slf4j
+public class BatchTaskExecutorFactory {
+
+    public enum Mode {
+        AUTO, VIRTUAL, PLATFORM;
+
+        /**
+         * batch.task-executor.mode 값(대소문자 무시)을 Mode 로 바꾼다.
+         */
+        public static Mode of(String value) {
+            String name = value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+            return Arrays.stream(values())
+                    .filter(mode -> mode.name().equals(name))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException(
+                            "batch.task-executor.mode must be one of auto|virtual|platform but was: " + value));
+        }
+    }
+
+    private final Mode mode;
+    private final ConnectionPoolGovernor governor;
+
+    public BatchTaskExecutorFactory(DataSource dataSource, Mode mode, MeterRegistry meterRegistry) {
+        this.mode = mode;
+        this.governor = new ConnectionPoolGovernor(dataSource, meterRegistry);
+    }
+
+    /**
+     * 작업 하나가 connection 1개를 쓰는 TaskExecutor (chunk 트랜잭션 등)
+     */
+    public BoundedTaskExecutor create(String threadNamePrefix, int concurrency) {
+        return create(threadNamePrefix, concurrency, 1);
+    }
+
+    /**
+     * @param connectionsPerTask 작업 하나가 동시에 잡는 connection 수 (ex. cursor reader + chunk 트랜잭션 = 2, 0 이면 Governor 를 거치지 않는다)
+     */
+    public BoundedTaskExecutor create(String threadNamePrefix, int concurrency, int connectionsPerTask) {
+        int permits = Math.max(1, concurrency);
+        int poolSize = connectionsPerTask > 0
+                ? Math.max(1, Math.min(permits, governor.getCapacity() / connectionsPerTask))
+                : permits;
+        if (poolSize < permits) {
+            log.info(">>>>> {} concurrency {} -> {} (connection pool {})", threadNamePrefix, permits, poolSize, governor.getCapacity());
+        }
+
+        ThreadFactory virtualThreadFactory = mode == Mode.PLATFORM ? null : virtualThreadFactory(threadNamePrefix);
+        if (mode == Mode.VIRTUAL && virtualThreadFactory == null) {
+            throw new IllegalStateException("Virtual threads require JDK 21+ (current: " + Runtime.version() + ")");
+        }
+        Timer waitTimer = governor.waitTimer(threadNamePrefix);
+        if (virtualThreadFactory != null) {
+            return new BoundedTaskExecutor(new SimpleAsyncTaskExecutor(virtualThreadFactory), poolSize,
+                    governor, connectionsPerTask, waitTimer);
+        }
+
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(poolSize);
+        pool.setMaxPoolSize(poolSize);
+        pool.setAllowCoreThreadTimeOut(true);
+        pool.setThreadNamePrefix(threadNamePrefix);
+        pool.setWaitForTasksToCompleteOnShutdown(true);
+        pool.initialize();
+        return new BoundedTaskExecutor(pool, poolSize, governor, connectionsPerTask, waitTimer);
+    }
+
+    public ConnectionPoolGovernor getGovernor() {
+        return governor;
+    }
+
+    public boolean isVirtualThreadSupported() {
+        return virtualThreadFactory("probe-") != null;
+    }
+
+    /**
+     * Thread.ofVirtual().name(prefix, 0).factory() (JDK 21 미만이면 null)
+     */
+    private static ThreadFactory virtualThreadFactory(String threadNamePrefix) {
+        if (Runtime.version().feature() < 21) {
+            return null;
+        }
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            log.warn(">>>>> virtual thread 생성 실패. platform thread 사용", e);
+            return null;
+        }
+    }
+
+    /**
+     * Semaphore 로 동시에 실행 중인 작업 수를 permits 개로 제한하고, 작업마다 Governor 에서 connection 자리를 받는 TaskExecutor
+     */
+    public static class BoundedTaskExecutor implements TaskExecutor, DisposableBean {
+
+        private final TaskExecutor delegate;
+        private final Semaphore semaphore;
+        private final ConnectionPoolGovernor governor;
+        private final int connectionsPerTask;
+        private final Timer waitTimer;
+
+        public BoundedTaskExecutor(TaskExecutor delegate, int permits, ConnectionPoolGovernor governor,
+                                   int connectionsPerTask, Timer waitTimer) {
+            this.delegate = delegate;
+            this.semaphore = new Semaphore(permits, true);
+            this.governor = governor;
+            this.connectionsPerTask = connectionsPerTask;
+            this.waitTimer = waitTimer;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            try {
+                semaphore.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TaskRejectedException("Interrupted while waiting for a permit", e);
+            }
+            try {
+                acquireConnections();
+            } catch (RuntimeException e) {
+                semaphore.release();
+                throw e;
+            }
+            try {
+                delegate.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                release();
+                throw e;
+            }
+        }
+
+        public int getAvailablePermits() {
+            return semaphore.availablePermits();
+        }
+
+        @Override
+        public void destroy() throws Exception {
+            if (delegate instanceof DisposableBean) {
+                ((DisposableBean) delegate).destroy();
+            }
+        }
+
+        private void acquireConnections() {
+            if (connectionsPerTask <= 0) {
+                return;
+            }
+            try {
+                governor.acquire(connectionsPerTask, waitTimer);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TaskRejectedException("Interrupted while waiting for connections", e);
+            }
+        }
+
+        private void release() {
+            if (connectionsPerTask > 0) {
+                governor.release(connectionsPerTask);
+            }
+            semaphore.release();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.hansoleee.basicspringbatch.entity.ClassInformation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * txProcessorJob과 같은 결과(반 정보)를 Teacher/Student 엔티티 없이 만드는 Job
+ * DB에서 group by 한 결과를 Cursor로 읽어 바로 ClassInformation으로 매핑하기 때문에
+ * 영속성 컨텍스트에 엔티티가 쌓이지 않는다.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class ClassInformationJobConfiguration {
+
+    public static final String JOB_NAME = "classInformationJob";
+    public static final String BEAN_PREFIX = JOB_NAME + "_";
+
+    private final JobBuilderFactory jobBuilderFactory;
+    private final StepBuilderFactory stepBuilderFactory;
+    private final DataSource dataSource;
+
+    private int chunkSize;
+
+    @Value("${chunkSize:1000}")
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    @Bean(JOB_NAME)
+    public Job job() {
+        return jobBuilderFactory.get(JOB_NAME)
+                .start(step())
+                .build();
+    }
+
+    @Bean(BEAN_PREFIX + "step")
+    public Step step() {
+        return stepBuilderFactory.get(BEAN_PREFIX + "step")
+                .<ClassInformation, ClassInformation>chunk(chunkSize)
+                .reader(reader())
+                .writer(writer())
+                .build();
+    }
+
+    @Bean(BEAN_PREFIX + "reader")
+    public JdbcCursorItemReader<ClassInformation> reader() {
+        return new JdbcCursorItemReaderBuilder<ClassInformation>()
+                .name(BEAN_PREFIX + "reader")
+                .fetchSize(chunkSize)
+                .dataSource(dataSource)
+                .sql("SELECT t.teacher_id, t.name, COUNT(s.student_id) AS the_number_of_students " +
+                        "FROM teacher t LEFT JOIN student s ON s.teacher_id = t.teacher_id " +
+                        "GROUP BY t.teacher_id, t.name " +
+                        "ORDER BY t.teacher_id")
+                .rowMapper((rs, rowNum) -> new ClassInformation(rs.getString("name"), rs.getLong("the_number_of_students")))
+                .build();
+    }
+
+    private ItemWriter<ClassInformation> writer() {
+        return items -> {
+            for (ClassInformation classInformation : items) {
+                log.info(">>>>> 반 정보={}", classInformation);
+            }
+        };
+    }
+}
@@ -0,0 +1,197 @@
+package com.hansoleee.basicspringbatch.job;
+
+import org.springframework.batch.core.repository.ExecutionContextSerializer;
+import org.springframework.batch.core.repository.dao.Jackson2ExecutionContextStringSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ExecutionContext 를 Jackson JSON 대신 작은 바이너리 형식으로 저장하는 Serializer
+ *
+ * Reader 들이 저장하는 String / Long / Integer / Double / Boolean / Map(String key) 은 타입 태그 + 값으로만 쓰고
+ * (숫자는 zigzag varint) 그 외의 타입은 해당 값만 Jackson JSON 으로 넣는다.
+ * 컬럼이 문자열(ISO-8859-1 변환)이므로 바이너리는 Base64 로 감싸고 "C1:"(버전 1) 을 앞에 붙인다.
+ *
+ * "C1:" 로 시작하지 않는 값은 기존 JSON 으로 보고 Jackson 으로 읽으므로 이미 저장된 ExecutionContext 로도 재시작할 수 있다.
+ */
+public class CompactExecutionContextSerializer implements ExecutionContextSerializer {
+
+    static final byte[] HEADER = "C1:".getBytes(StandardCharsets.ISO_8859_1);
+
+    private static final int STRING = 1;
+    private static final int LONG = 2;
+    private static final int INTEGER = 3;
+    private static final int DOUBLE = 4;
+    private static final int BOOLEAN = 5;
+    private static final int MAP = 6;
+    private static final int JSON = 7;
+
+    private static final String JSON_KEY = "value";
+
+    private final Jackson2ExecutionContextStringSerializer jsonSerializer;
+
+    public CompactExecutionContextSerializer() {
+        this(new Jackson2ExecutionContextStringSerializer());
+    }
+
+    public CompactExecutionContextSerializer(Jackson2ExecutionContextStringSerializer jsonSerializer) {
+        this.jsonSerializer = jsonSerializer;
+    }
+
+    @Override
+    public void serialize(Map<String, Object> context, OutputStream out) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream data = new DataOutputStream(bytes);
+        writeMap(data, context);
+        data.flush();
+
+        out.write(HEADER);
+        out.write(Base64.getEncoder().encode(bytes.toByteArray()));
+    }
+
+    @Override
+    public Map<String, Object> deserialize(InputStream in) throws IOException {
+        byte[] bytes = in.readAllBytes();
+        if (!isCompact(bytes)) {
+            return jsonSerializer.deserialize(new ByteArrayInputStream(bytes));
+        }
+
+        byte[] binary = Base64.getDecoder().decode(Arrays.copyOfRange(bytes, HEADER.length, bytes.length));
+        return readMap(new DataInputStream(new ByteArrayInputStream(binary)));
+    }
+
+    static boolean isCompact(byte[] bytes) {
+        return bytes.length >= HEADER.length
+                && Arrays.equals(bytes, 0, HEADER.length, HEADER, 0, HEADER.length);
+    }
+
+    private void writeMap(DataOutputStream out, Map<?, ?> map) throws IOException {
+        writeVarLong(out, map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            writeString(out, (String) entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            writeVarLong(out, zigzag((Long) value));
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            writeVarLong(out, zigzag((Integer) value));
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Map && hasStringKeys((Map<?, ?>) value)) {
+            // JdbcPagingItemReader 의 start.after (정렬 키 -> 마지막 값)
+            out.writeByte(MAP);
+            writeMap(out, (Map<?, ?>) value);
+        } else {
+            ByteArrayOutputStream json = new ByteArrayOutputStream();
+            jsonSerializer.serialize(Collections.singletonMap(JSON_KEY, value), json);
+            out.writeByte(JSON);
+            writeString(out, json.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    private Map<String, Object> readMap(DataInputStream in) throws IOException {
+        int size = (int) readVarLong(in);
+        Map<String, Object> map = new LinkedHashMap<>(Math.max(4, size * 2));
+        for (int i = 0; i < size; i++) {
+            String key = readString(in);
+            map.put(key, readValue(in));
+        }
+        return map;
+    }
+
+    private Object readValue(DataInputStream in) throws IOException {
+        int type = in.readByte();
+        switch (type) {
+            case STRING:
+                return readString(in);
+            case LONG:
+                return unzigzag(readVarLong(in));
+            case INTEGER:
+                return (int) unzigzag(readVarLong(in));
+            case DOUBLE:
+                return in.readDouble();
+            case BOOLEAN:
+                return in.readBoolean();
+            case MAP:
+                return readMap(in);
+            case JSON:
+                byte[] json = readString(in).getBytes(StandardCharsets.UTF_8);
+                return jsonSerializer.deserialize(new ByteArrayInputStream(json)).get(JSON_KEY);
+            default:
+                throw new IOException("Unknown ExecutionContext value type: " + type);
+        }
+    }
+
+    private static boolean hasStringKeys(Map<?, ?> map) {
+        for (Object key : map.keySet()) {
+            if (!(key instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in ExecutionContext");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
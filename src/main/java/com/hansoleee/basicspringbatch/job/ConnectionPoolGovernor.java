@@ -0,0 +1,129 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * partition / chunk 작업이 시작되기 전에 필요한 connection 수만큼 자리를 받도록 해서 Hikari pool 이 바닥나지 않게 하는 Governor
+ *
+ * 같은 DataSource 를 쓰는 모든 TaskExecutor(BatchTaskExecutorFactory)가 하나의 Governor 를 공유한다.
+ * - capacity: Hikari maximumPoolSize - 1 (1개는 Job Repository 갱신용). Hikari 가 아니면 제한하지 않는다.
+ * - 실행 중인 작업이 예약한 connection 합계 + 새 작업의 connection 수가 capacity 를 넘으면 기다린다.
+ * - Governor 밖에서 connection 을 기다리는 쓰레드가 있으면(threadsAwaitingConnection > 0) 새 작업을 시작하지 않는다.
+ *   (실행 중인 작업이 하나도 없으면 그대로 시작해서 멈추지 않도록 한다)
+ *
+ * 메트릭 (BatchMetricsConfiguration 의 registry 로 수집)
+ * - batch.governor.wait{executor}: 작업이 자리를 받기까지 기다린 시간
+ * - batch.governor.reserved / batch.governor.capacity: 예약된 connection 수 / 전체 자리
+ * - batch.governor.pool.active / batch.governor.pool.awaiting: Hikari active connection 수 / connection 을 기다리는 쓰레드 수
+ */
+@Slf4j
+public class ConnectionPoolGovernor {
+
+    private static final int RESERVED_CONNECTIONS = 1;
+    private static final long RECHECK_MILLIS = 50;
+
+    private final HikariDataSource hikariDataSource;
+    private final int capacity;
+    private final MeterRegistry meterRegistry;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition released = lock.newCondition();
+    private int reserved;
+
+    public ConnectionPoolGovernor(DataSource dataSource, MeterRegistry meterRegistry) {
+        this.hikariDataSource = hikari(dataSource);
+        this.capacity = hikariDataSource == null
+                ? Integer.MAX_VALUE
+                : Math.max(1, hikariDataSource.getMaximumPoolSize() - RESERVED_CONNECTIONS);
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("batch.governor.reserved", this, ConnectionPoolGovernor::getReserved).register(meterRegistry);
+        Gauge.builder("batch.governor.capacity", this, ConnectionPoolGovernor::getCapacity).register(meterRegistry);
+        Gauge.builder("batch.governor.pool.active", this, governor -> governor.poolValue(HikariPoolMXBean::getActiveConnections))
+                .register(meterRegistry);
+        Gauge.builder("batch.governor.pool.awaiting", this, governor -> governor.poolValue(HikariPoolMXBean::getThreadsAwaitingConnection))
+                .register(meterRegistry);
+    }
+
+    public Timer waitTimer(String executorName) {
+        return Timer.builder("batch.governor.wait")
+                .tag("executor", executorName)
+                .register(meterRegistry);
+    }
+
+    /**
+     * connections 개의 자리가 날 때까지 기다린다. capacity 보다 많이 요청하면 capacity 만큼만 예약한다.
+     */
+    public void acquire(int connections, Timer waitTimer) throws InterruptedException {
+        int need = Math.min(connections, capacity);
+        long start = System.nanoTime();
+        lock.lockInterruptibly();
+        try {
+            while (reserved > 0 && (reserved + need > capacity || isPoolSaturated())) {
+                released.await(RECHECK_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            reserved += need;
+        } finally {
+            lock.unlock();
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    public void release(int connections) {
+        lock.lock();
+        try {
+            reserved -= Math.min(connections, capacity);
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getReserved() {
+        lock.lock();
+        try {
+            return reserved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isPoolSaturated() {
+        return poolValue(HikariPoolMXBean::getThreadsAwaitingConnection) > 0;
+    }
+
+    /**
+     * pool 은 첫 getConnection 때 만들어지므로 그 전에는 0
+     */
+    private int poolValue(ToIntFunction<HikariPoolMXBean> value) {
+        HikariPoolMXBean pool = hikariDataSource == null ? null : hikariDataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : value.applyAsInt(pool);
+    }
+
+    private static HikariDataSource hikari(DataSource dataSource) {
+        try {
+            if (dataSource != null && dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class);
+            }
+        } catch (SQLException e) {
+            log.warn(">>>>> connection pool 확인 실패", e);
+        }
+        return null;
+    }
+}
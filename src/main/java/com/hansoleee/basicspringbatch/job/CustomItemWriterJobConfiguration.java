@@ -4,16 +4,27 @@ import com.hansoleee.basicspringbatch.entity.Pay;
 import com.hansoleee.basicspringbatch.entity.Pay2;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
 import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.batch.item.ItemWriter;
-import org.springframework.batch.item.database.JpaPagingItemReader;
-import org.springframework.batch.item.database.builder.JpaPagingItemReaderBuilder;
+import org.springframework.batch.item.database.HibernateCursorItemReader;
+import org.springframework.batch.item.database.builder.HibernateCursorItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.integration.annotation.Poller;
+import org.springframework.integration.annotation.ServiceActivator;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.persistence.EntityManagerFactory;
 
@@ -25,35 +36,94 @@ public class CustomItemWriterJobConfiguration {
     private final JobBuilderFactory jobBuilderFactory;
     private final StepBuilderFactory stepBuilderFactory;
     private final EntityManagerFactory entityManagerFactory;
+    private final PlatformTransactionManager transactionManager;
+    private final BatchTaskExecutorFactory taskExecutorFactory;
 
     public static final int chunkSize = 10;
 
+    @Value("${remoteChunking.timeout:60000}")
+    private long remoteChunkingTimeout;
+
     @Bean
     public Job customItemWriterJob() {
         return jobBuilderFactory.get("customItemWriterJob")
-                .start(customItemWriterStep())
+                .start(customItemWriterStep(null, null, null, null))
                 .build();
     }
 
+    /**
+     * session=stateless 이면 StatelessSession 의 forward-only 커서로 Pay 를 읽는다.
+     * chunking=remote 이면 Pay 를 읽어서 chunk 단위로 Worker 에 보내고, Pay -> Pay2 변환과 쓰기는 Worker 가 한다.
+     * (응답을 기다리는 chunk 가 maxOutstandingChunks 개를 넘으면 읽기를 멈춘다)
+     */
     @Bean
-    public Step customItemWriterStep() {
-        return stepBuilderFactory.get("customItemWriterStep")
-                .<Pay, Pay2>chunk(chunkSize)
-                .reader(customItemWriterReader())
+    @JobScope
+    public Step customItemWriterStep(@Value("#{jobParameters[concurrency] ?: 1}") Integer concurrency,
+                                     @Value("#{jobParameters[session] ?: 'jpa'}") String session,
+                                     @Value("#{jobParameters[chunking] ?: 'local'}") String chunking,
+                                     @Value("#{jobParameters[maxOutstandingChunks] ?: 4}") Integer maxOutstandingChunks) {
+        ItemStreamReader<Pay> reader = "stateless".equals(session) ? customItemWriterStatelessReader() : customItemWriterReader();
+        if ("remote".equals(chunking)) {
+            SimpleStepBuilder<Pay, Pay> builder = stepBuilderFactory.get("customItemWriterStep")
+                    .<Pay, Pay>chunk(chunkSize);
+
+            return RemoteChunkingStep.manager(builder, customItemWriterRequests(), customItemWriterReplies(),
+                            maxOutstandingChunks, remoteChunkingTimeout)
+                    .reader(reader)
+                    .build();
+        }
+
+        SimpleStepBuilder<Pay, Pay2> builder = stepBuilderFactory.get("customItemWriterStep")
+                .<Pay, Pay2>chunk(chunkSize);
+
+        return MultiThreadedStep.reader(builder, reader, "customItemWriterReader", concurrency, taskExecutorFactory)
                 .processor(customItemWriterProcessor())
                 .writer(customItemWriter())
                 .build();
     }
 
     @Bean
-    public JpaPagingItemReader<Pay> customItemWriterReader() {
-        return new JpaPagingItemReaderBuilder<Pay>()
-                .name("customItemWriterReader")
-                .entityManagerFactory(entityManagerFactory)
-                .queryString("SELECT p FROM Pay p")
+    public JpaKeysetItemReader<Pay> customItemWriterReader() {
+        JpaKeysetItemReader<Pay> reader = new JpaKeysetItemReader<>();
+        reader.setName("customItemWriterReader");
+        reader.setEntityManagerFactory(entityManagerFactory);
+        reader.setPageSize(chunkSize);
+        reader.setQueryString("SELECT p FROM Pay p WHERE p.id > :lastId ORDER BY p.id");
+        reader.setIdExtractor(Pay::getId);
+        return reader;
+    }
+
+    @Bean
+    public HibernateCursorItemReader<Pay> customItemWriterStatelessReader() {
+        return new HibernateCursorItemReaderBuilder<Pay>()
+                .name("customItemWriterStatelessReader")
+                .sessionFactory(entityManagerFactory.unwrap(SessionFactory.class))
+                .queryString("SELECT p FROM Pay p ORDER BY p.id")
+                .fetchSize(chunkSize)
+                .useStatelessSession(true)
                 .build();
     }
 
+    /**
+     * Remote Chunking 용 채널 (메모리 큐)
+     */
+    @Bean
+    public QueueChannel customItemWriterRequests() {
+        return new QueueChannel();
+    }
+
+    @Bean
+    public QueueChannel customItemWriterReplies() {
+        return new QueueChannel();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "remoteChunking.worker", havingValue = "true")
+    @ServiceActivator(inputChannel = "customItemWriterRequests", poller = @Poller(fixedDelay = "${remoteChunking.pollInterval:100}"))
+    public MessageHandler customItemWriterWorker() {
+        return RemoteChunkingStep.worker(customItemWriterProcessor(), customItemWriter(), customItemWriterReplies(), transactionManager);
+    }
+
     @Bean
     public ItemProcessor<Pay, Pay2> customItemWriterProcessor() {
         return pay -> new Pay2(pay.getAmount(), pay.getTxName(), pay.getTxDateTime());
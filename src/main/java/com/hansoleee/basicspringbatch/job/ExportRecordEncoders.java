@@ -0,0 +1,181 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.hansoleee.basicspringbatch.entity.Pay;
+import com.hansoleee.basicspringbatch.entity.SalesSum;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * MappedFileItemWriter 로 Pay / SalesSum 을 내보낼 때 쓰는 RecordEncoder 모음
+ *
+ * binary: 고정 길이 record (big-endian). NULL 은 Long.MIN_VALUE / 길이 -1 로 표시한다.
+ *  - Pay (56 byte): id(8) amount(8) tx_date_time epoch second UTC(8) tx_name 길이(2) tx_name UTF-8(30, 0 으로 채움)
+ *  - SalesSum (16 byte): order_date epoch day(8) amount_sum(8)
+ * csv: UTF-8, 줄바꿈 \n, NULL 은 빈 값. 숫자 / 날짜는 String 을 만들지 않고 byte 로 바로 쓴다.
+ *  - tx_date_time 은 yyyy-MM-dd HH:mm:ss (나노초는 버린다)
+ *  - tx_name 에 , " 줄바꿈이 있으면 " 로 감싸고 " 는 "" 로 쓴다.
+ */
+public final class ExportRecordEncoders {
+
+    public static final int PAY_RECORD_SIZE = 56;
+    public static final int PAY_TX_NAME_SIZE = 30;
+    public static final int SALES_SUM_RECORD_SIZE = 16;
+    public static final long NULL_LONG = Long.MIN_VALUE;
+
+    public static final byte[] PAY_CSV_HEADER = "id,amount,tx_name,tx_date_time\n".getBytes(StandardCharsets.UTF_8);
+    public static final byte[] SALES_SUM_CSV_HEADER = "order_date,amount_sum\n".getBytes(StandardCharsets.UTF_8);
+
+    private ExportRecordEncoders() {
+    }
+
+    public static MappedFileItemWriter.RecordEncoder<Pay> payBinary() {
+        return (pay, buffer) -> {
+            byte[] txName = pay.getTxName() == null ? null : pay.getTxName().getBytes(StandardCharsets.UTF_8);
+            if (txName != null && txName.length > PAY_TX_NAME_SIZE) {
+                throw new IllegalArgumentException("tx_name is longer than " + PAY_TX_NAME_SIZE + " bytes: " + pay.getTxName());
+            }
+            if (buffer.remaining() < PAY_RECORD_SIZE) {
+                throw new BufferOverflowException();
+            }
+            buffer.putLong(nullToMin(pay.getId()));
+            buffer.putLong(nullToMin(pay.getAmount()));
+            buffer.putLong(pay.getTxDateTime() == null ? NULL_LONG : pay.getTxDateTime().toEpochSecond(ZoneOffset.UTC));
+            if (txName == null) {
+                buffer.putShort((short) -1);
+                txName = new byte[0];
+            } else {
+                buffer.putShort((short) txName.length);
+            }
+            buffer.put(txName);
+            for (int i = txName.length; i < PAY_TX_NAME_SIZE; i++) {
+                buffer.put((byte) 0);
+            }
+        };
+    }
+
+    public static MappedFileItemWriter.RecordEncoder<SalesSum> salesSumBinary() {
+        return (salesSum, buffer) -> {
+            if (buffer.remaining() < SALES_SUM_RECORD_SIZE) {
+                throw new BufferOverflowException();
+            }
+            buffer.putLong(salesSum.getOrderDate() == null ? NULL_LONG : salesSum.getOrderDate().toEpochDay());
+            buffer.putLong(salesSum.getAmountSum());
+        };
+    }
+
+    public static MappedFileItemWriter.RecordEncoder<Pay> payCsv() {
+        return (pay, buffer) -> {
+            if (pay.getId() != null) {
+                putDecimal(buffer, pay.getId());
+            }
+            buffer.put((byte) ',');
+            if (pay.getAmount() != null) {
+                putDecimal(buffer, pay.getAmount());
+            }
+            buffer.put((byte) ',');
+            if (pay.getTxName() != null) {
+                putCsvText(buffer, pay.getTxName());
+            }
+            buffer.put((byte) ',');
+            if (pay.getTxDateTime() != null) {
+                putDateTime(buffer, pay.getTxDateTime());
+            }
+            buffer.put((byte) '\n');
+        };
+    }
+
+    public static MappedFileItemWriter.RecordEncoder<SalesSum> salesSumCsv() {
+        return (salesSum, buffer) -> {
+            if (salesSum.getOrderDate() != null) {
+                putDate(buffer, salesSum.getOrderDate());
+            }
+            buffer.put((byte) ',');
+            putDecimal(buffer, salesSum.getAmountSum());
+            buffer.put((byte) '\n');
+        };
+    }
+
+    private static long nullToMin(Long value) {
+        return value == null ? NULL_LONG : value;
+    }
+
+    static void putDecimal(ByteBuffer buffer, long value) {
+        if (value == Long.MIN_VALUE) {
+            buffer.put(Long.toString(value).getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        // 뒤 자리부터 쓰고 뒤집는다.
+        int start = buffer.position();
+        do {
+            buffer.put((byte) ('0' + value % 10));
+            value /= 10;
+        } while (value > 0);
+        for (int i = start, j = buffer.position() - 1; i < j; i++, j--) {
+            byte b = buffer.get(i);
+            buffer.put(i, buffer.get(j));
+            buffer.put(j, b);
+        }
+    }
+
+    private static void putDate(ByteBuffer buffer, LocalDate date) {
+        putPadded(buffer, date.getYear(), 4);
+        buffer.put((byte) '-');
+        putPadded(buffer, date.getMonthValue(), 2);
+        buffer.put((byte) '-');
+        putPadded(buffer, date.getDayOfMonth(), 2);
+    }
+
+    private static void putDateTime(ByteBuffer buffer, LocalDateTime dateTime) {
+        putDate(buffer, dateTime.toLocalDate());
+        buffer.put((byte) ' ');
+        putPadded(buffer, dateTime.getHour(), 2);
+        buffer.put((byte) ':');
+        putPadded(buffer, dateTime.getMinute(), 2);
+        buffer.put((byte) ':');
+        putPadded(buffer, dateTime.getSecond(), 2);
+    }
+
+    private static void putPadded(ByteBuffer buffer, int value, int width) {
+        int position = buffer.position() + width;
+        if (position > buffer.limit()) {
+            throw new BufferOverflowException();
+        }
+        for (int i = position - 1; i >= position - width; i--) {
+            buffer.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        buffer.position(position);
+    }
+
+    private static void putCsvText(ByteBuffer buffer, String text) {
+        boolean quote = false;
+        boolean ascii = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                quote = true;
+            } else if (c >= 0x80) {
+                ascii = false;
+            }
+        }
+
+        if (!quote && ascii) {
+            for (int i = 0; i < text.length(); i++) {
+                buffer.put((byte) text.charAt(i));
+            }
+            return;
+        }
+
+        String value = quote ? '"' + text.replace("\"", "\"\"") + '"' : text;
+        buffer.put(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,127 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.hansoleee.basicspringbatch.entity.Pay;
+import com.hansoleee.basicspringbatch.entity.PayJdbcMapper;
+import com.hansoleee.basicspringbatch.entity.SalesSum;
+import com.hansoleee.basicspringbatch.entity.SalesSumJdbcMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.nio.file.Paths;
+
+/**
+ * pay / sales_sum 을 다른 시스템이 가져갈 파일로 내보내는 Job (MappedFileItemWriter)
+ *
+ * format=csv 이면 CSV(첫 줄 컬럼명), format=binary 이면 ExportRecordEncoders 의 고정 길이 record 로 쓴다.
+ * 실패 후 같은 파라미터로 재시작하면 파일을 마지막 commit 위치로 잘라내고 이어서 쓴다.
+ * 실행 예) --job.name=payExportJob format=binary outputFile=/data/export/pay.bin
+ * 실행 예) --job.name=salesSumExportJob format=csv outputFile=/data/export/sales_sum.csv
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class FileExportJobConfiguration {
+
+    public static final String PAY_JOB_NAME = "payExportJob";
+    public static final String SALES_SUM_JOB_NAME = "salesSumExportJob";
+
+    private final JobBuilderFactory jobBuilderFactory;
+    private final StepBuilderFactory stepBuilderFactory;
+    private final DataSource dataSource;
+
+    @Value("${chunkSize:1000}")
+    private int chunkSize;
+
+    @Bean(PAY_JOB_NAME)
+    public Job payExportJob() {
+        return jobBuilderFactory.get(PAY_JOB_NAME)
+                .start(payExportStep())
+                .build();
+    }
+
+    @Bean(SALES_SUM_JOB_NAME)
+    public Job salesSumExportJob() {
+        return jobBuilderFactory.get(SALES_SUM_JOB_NAME)
+                .start(salesSumExportStep())
+                .build();
+    }
+
+    @Bean(PAY_JOB_NAME + "_step")
+    public Step payExportStep() {
+        return stepBuilderFactory.get(PAY_JOB_NAME + "_step")
+                .<Pay, Pay>chunk(chunkSize)
+                .reader(payExportReader())
+                .writer(payExportWriter(null, null))
+                .build();
+    }
+
+    @Bean(SALES_SUM_JOB_NAME + "_step")
+    public Step salesSumExportStep() {
+        return stepBuilderFactory.get(SALES_SUM_JOB_NAME + "_step")
+                .<SalesSum, SalesSum>chunk(chunkSize)
+                .reader(salesSumExportReader())
+                .writer(salesSumExportWriter(null, null))
+                .build();
+    }
+
+    @Bean(PAY_JOB_NAME + "_reader")
+    @StepScope
+    public JdbcCursorItemReader<Pay> payExportReader() {
+        return new JdbcCursorItemReaderBuilder<Pay>()
+                .fetchSize(chunkSize)
+                .dataSource(dataSource)
+                .rowMapper(new PayJdbcMapper())
+                .sql("SELECT id, amount, tx_name, tx_date_time FROM pay ORDER BY id")
+                .name(PAY_JOB_NAME + "_reader")
+                .build();
+    }
+
+    @Bean(SALES_SUM_JOB_NAME + "_reader")
+    @StepScope
+    public JdbcCursorItemReader<SalesSum> salesSumExportReader() {
+        return new JdbcCursorItemReaderBuilder<SalesSum>()
+                .fetchSize(chunkSize)
+                .dataSource(dataSource)
+                .rowMapper(new SalesSumJdbcMapper())
+                .sql("SELECT order_date, amount_sum FROM sales_sum ORDER BY order_date")
+                .name(SALES_SUM_JOB_NAME + "_reader")
+                .build();
+    }
+
+    @Bean(PAY_JOB_NAME + "_writer")
+    @StepScope
+    public MappedFileItemWriter<Pay> payExportWriter(@Value("#{jobParameters[format] ?: 'csv'}") String format,
+                                                     @Value("#{jobParameters[outputFile] ?: 'export/pay.'+(jobParameters[format] ?: 'csv')}") String outputFile) {
+        log.info(">>>>> pay export: format={}, outputFile={}", format, outputFile);
+        if ("binary".equals(format)) {
+            return new MappedFileItemWriter<>(Paths.get(outputFile), ExportRecordEncoders.payBinary());
+        }
+        MappedFileItemWriter<Pay> writer = new MappedFileItemWriter<>(Paths.get(outputFile), ExportRecordEncoders.payCsv());
+        writer.setHeader(ExportRecordEncoders.PAY_CSV_HEADER);
+        return writer;
+    }
+
+    @Bean(SALES_SUM_JOB_NAME + "_writer")
+    @StepScope
+    public MappedFileItemWriter<SalesSum> salesSumExportWriter(@Value("#{jobParameters[format] ?: 'csv'}") String format,
+                                                               @Value("#{jobParameters[outputFile] ?: 'export/sales_sum.'+(jobParameters[format] ?: 'csv')}") String outputFile) {
+        log.info(">>>>> sales_sum export: format={}, outputFile={}", format, outputFile);
+        if ("binary".equals(format)) {
+            return new MappedFileItemWriter<>(Paths.get(outputFile), ExportRecordEncoders.salesSumBinary());
+        }
+        MappedFileItemWriter<SalesSum> writer = new MappedFileItemWriter<>(Paths.get(outputFile), ExportRecordEncoders.salesSumCsv());
+        writer.setHeader(ExportRecordEncoders.SALES_SUM_CSV_HEADER);
+        return writer;
+    }
+}
@@ -0,0 +1,62 @@
+package com.hansoleee.basicspringbatch.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 테이블의 MIN(id) ~ MAX(id)를 gridSize 개의 구간으로 나누는 Partitioner
+ * 각 파티션의 ExecutionContext에 minId, maxId를 담아 Worker Step으로 넘긴다.
+ */
+@Slf4j
+public class IdRangePartitioner implements Partitioner {
+
+    public static final String MIN_ID = "minId";
+    public static final String MAX_ID = "maxId";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String table;
+    private final String column;
+
+    public IdRangePartitioner(DataSource dataSource, String table, String column) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.table = table;
+        this.column = column;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> result = new HashMap<>();
+
+        Long min = jdbcTemplate.queryForObject("SELECT MIN(" + column + ") FROM " + table, Long.class);
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(" + column + ") FROM " + table, Long.class);
+        if (min == null || max == null) {
+            log.info(">>>>> {} 테이블이 비어있어 파티션을 만들지 않습니다.", table);
+            return result;
+        }
+
+        long targetSize = (max - min) / Math.max(gridSize, 1) + 1;
+        long start = min;
+        int number = 0;
+
+        while (start <= max) {
+            long end = Math.min(start + targetSize - 1, max);
+
+            ExecutionContext context = new ExecutionContext();
+            context.putLong(MIN_ID, start);
+            context.putLong(MAX_ID, end);
+            result.put("partition" + number, context);
+            log.info(">>>>> partition{}: {} ~ {}", number, start, end);
+
+            start = end + 1;
+            number++;
+        }
+
+        return result;
+    }
+}
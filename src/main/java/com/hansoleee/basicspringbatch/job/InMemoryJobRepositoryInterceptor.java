@@ -0,0 +1,243 @@
+package com.hansoleee.basicspringbatch.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 재시작하지 않는 Job(preventRestart)의 실행 정보를 메모리에만 두었다가 Job 이 끝날 때 DB Job Repository 에 한 번에 저장하는 Interceptor
+ *
+ * Step / chunk 마다 하던 BATCH_STEP_EXECUTION(_CONTEXT) UPDATE 가 없어지고, Job 이 끝나면
+ * BATCH_JOB_EXECUTION 1건 + Step 마다 BATCH_STEP_EXECUTION 1건(최종 건수, 상태)만 저장한다.
+ *
+ * - 실행 중인 Job 은 DB 에 보이지 않는다. (JobExplorer 로 조회 불가, JVM 이 죽으면 이력이 남지 않는다)
+ * - 같은 JobParameters 로 실행한 이력이 DB 에 이미 있으면 기존처럼 DB 로 실행해서 중복 실행 검사를 그대로 받는다.
+ *   메모리에서 실행 중인 같은 Job / JobParameters 가 있으면 JobExecutionAlreadyRunningException 을 던진다.
+ * - 메모리 실행은 JobExecution 객체에 Step 목록을 그대로 두고 관리한다. id 는 DB 의 id 와 겹치지 않게 음수로 준다.
+ * - 저장은 트랜잭션 proxy 가 없는 storeRepository(DAO 만 묶은 SimpleJobRepository)로 한 트랜잭션 안에서 한다.
+ *   (proxy 된 JobRepository 의 create* 는 REQUIRES_NEW 라서 중간에 실패하면 STARTING 상태의 BATCH_JOB_EXECUTION 이 남는다)
+ */
+@Slf4j
+public class InMemoryJobRepositoryInterceptor implements MethodInterceptor {
+
+    private static final AtomicLong MEMORY_IDS = new AtomicLong();
+
+    private final JobRepository jobRepository;
+    private final JobRepository storeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Supplier<Set<String>> inMemoryJobNames;
+
+    private final Set<JobExecution> executions = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    private final Map<JobInstance, JobExecution> instances = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    public InMemoryJobRepositoryInterceptor(JobRepository jobRepository, JobRepository storeRepository,
+                                            PlatformTransactionManager transactionManager,
+                                            Supplier<Set<String>> inMemoryJobNames) {
+        this.jobRepository = jobRepository;
+        this.storeRepository = storeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.inMemoryJobNames = inMemoryJobNames;
+    }
+
+    public JobRepository proxy() {
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setTarget(jobRepository);
+        proxyFactory.addInterface(JobRepository.class);
+        proxyFactory.addAdvice(this);
+        return (JobRepository) proxyFactory.getProxy();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String methodName = invocation.getMethod().getName();
+        Object[] arguments = invocation.getArguments();
+        if ("createJobExecution".equals(methodName) && arguments.length == 2
+                && arguments[0] instanceof String && inMemoryJobNames.get().contains(arguments[0])) {
+            return createJobExecution((String) arguments[0], (JobParameters) arguments[1], invocation);
+        }
+
+        JobExecution memoryExecution = findMemoryExecution(arguments);
+        if (memoryExecution == null) {
+            return invocation.proceed();
+        }
+        return invokeInMemory(methodName, arguments, memoryExecution);
+    }
+
+    /**
+     * 메모리 실행은 끝나면 DB 에 저장된 뒤에 목록에서 빠지므로 메모리 -> DB 순서로 검사하면 빈틈이 없다.
+     */
+    private Object createJobExecution(String jobName, JobParameters jobParameters, MethodInvocation invocation) throws Throwable {
+        synchronized (executions) {
+            JobExecution running = findRunning(jobName, jobParameters);
+            if (running != null) {
+                throw new JobExecutionAlreadyRunningException("A job execution for this job is already running: "
+                        + running.getJobInstance());
+            }
+            if (jobRepository.isJobInstanceExists(jobName, jobParameters)) {
+                return invocation.proceed();
+            }
+
+            JobInstance jobInstance = new JobInstance(MEMORY_IDS.decrementAndGet(), jobName);
+            JobExecution jobExecution = new JobExecution(jobInstance, MEMORY_IDS.decrementAndGet(), jobParameters, null);
+            jobExecution.setLastUpdated(new Date());
+            executions.add(jobExecution);
+            instances.put(jobInstance, jobExecution);
+            return jobExecution;
+        }
+    }
+
+    private JobExecution findRunning(String jobName, JobParameters jobParameters) {
+        return executions.stream()
+                .filter(execution -> jobName.equals(execution.getJobInstance().getJobName()))
+                .filter(execution -> jobParameters.equals(execution.getJobParameters()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private Object invokeInMemory(String methodName, Object[] arguments, JobExecution memoryExecution) {
+        switch (methodName) {
+            case "add":
+                addStepExecution((StepExecution) arguments[0]);
+                return null;
+            case "addAll":
+                ((Collection<?>) arguments[0]).forEach(stepExecution -> addStepExecution((StepExecution) stepExecution));
+                return null;
+            case "update":
+                if (arguments[0] instanceof StepExecution) {
+                    ((StepExecution) arguments[0]).setLastUpdated(new Date());
+                    return null;
+                }
+                memoryExecution.setLastUpdated(new Date());
+                if (memoryExecution.getEndTime() != null && !memoryExecution.getStatus().isRunning()) {
+                    flush(memoryExecution);
+                }
+                return null;
+            case "updateExecutionContext":
+                return null;
+            case "getLastStepExecution":
+                return stepExecutions(memoryExecution, (String) arguments[1])
+                        .reduce((first, second) -> second)
+                        .orElse(null);
+            case "getStepExecutionCount":
+                return (int) stepExecutions(memoryExecution, (String) arguments[1]).count();
+            default:
+                throw new UnsupportedOperationException(methodName + " is not supported for in-memory job executions");
+        }
+    }
+
+    private static void addStepExecution(StepExecution stepExecution) {
+        stepExecution.setId(MEMORY_IDS.decrementAndGet());
+        stepExecution.setLastUpdated(new Date());
+    }
+
+    private static Stream<StepExecution> stepExecutions(JobExecution jobExecution, String stepName) {
+        return jobExecution.getStepExecutions().stream()
+                .filter(stepExecution -> stepName.equals(stepExecution.getStepName()));
+    }
+
+    private JobExecution findMemoryExecution(Object[] arguments) {
+        if (arguments.length == 0) {
+            return null;
+        }
+
+        Object argument = arguments[0];
+        if (argument instanceof Collection && !((Collection<?>) argument).isEmpty()) {
+            argument = ((Collection<?>) argument).iterator().next();
+        }
+        if (argument instanceof StepExecution) {
+            argument = ((StepExecution) argument).getJobExecution();
+        }
+        if (argument instanceof JobExecution) {
+            return executions.contains(argument) ? (JobExecution) argument : null;
+        }
+        if (argument instanceof JobInstance) {
+            return instances.get(argument);
+        }
+        return null;
+    }
+
+    /**
+     * 끝난 Job 을 DB 에 저장하고 메모리 객체의 id / version 을 DB 값으로 바꾼다. (이후 호출은 DB 로 간다)
+     */
+    private void flush(JobExecution memoryExecution) {
+        JobExecution persisted = transactionTemplate.execute(status -> {
+            try {
+                return save(memoryExecution);
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to save in-memory job execution: " + memoryExecution.getJobInstance().getJobName(), e);
+            }
+        });
+
+        executions.remove(memoryExecution);
+        instances.remove(memoryExecution.getJobInstance());
+
+        memoryExecution.getJobInstance().setId(persisted.getJobInstance().getId());
+        memoryExecution.getJobInstance().setVersion(persisted.getJobInstance().getVersion());
+        memoryExecution.setId(persisted.getId());
+        memoryExecution.setVersion(persisted.getVersion());
+        List<StepExecution> persistedSteps = new ArrayList<>(persisted.getStepExecutions());
+        int index = 0;
+        for (StepExecution stepExecution : memoryExecution.getStepExecutions()) {
+            StepExecution persistedStep = persistedSteps.get(index++);
+            stepExecution.setId(persistedStep.getId());
+            stepExecution.setVersion(persistedStep.getVersion());
+        }
+        log.info(">>>>> in-memory job saved: {} (jobExecutionId={}, steps={})",
+                memoryExecution.getJobInstance().getJobName(), persisted.getId(), persistedSteps.size());
+    }
+
+    private JobExecution save(JobExecution memoryExecution) throws Exception {
+        JobExecution persisted = storeRepository.createJobExecution(memoryExecution.getJobInstance().getJobName(),
+                memoryExecution.getJobParameters());
+
+        for (StepExecution memoryStep : memoryExecution.getStepExecutions()) {
+            StepExecution step = persisted.createStepExecution(memoryStep.getStepName());
+            step.setStatus(memoryStep.getStatus());
+            step.setExitStatus(memoryStep.getExitStatus());
+            step.setStartTime(memoryStep.getStartTime());
+            step.setEndTime(memoryStep.getEndTime());
+            step.setLastUpdated(memoryStep.getLastUpdated());
+            step.setReadCount(memoryStep.getReadCount());
+            step.setWriteCount(memoryStep.getWriteCount());
+            step.setFilterCount(memoryStep.getFilterCount());
+            step.setCommitCount(memoryStep.getCommitCount());
+            step.setRollbackCount(memoryStep.getRollbackCount());
+            step.setReadSkipCount(memoryStep.getReadSkipCount());
+            step.setProcessSkipCount(memoryStep.getProcessSkipCount());
+            step.setWriteSkipCount(memoryStep.getWriteSkipCount());
+            step.setExecutionContext(new ExecutionContext(memoryStep.getExecutionContext()));
+            storeRepository.add(step);
+        }
+
+        persisted.setStatus(memoryExecution.getStatus());
+        persisted.setExitStatus(memoryExecution.getExitStatus());
+        persisted.setStartTime(memoryExecution.getStartTime());
+        persisted.setEndTime(memoryExecution.getEndTime());
+        persisted.setExecutionContext(new ExecutionContext(memoryExecution.getExecutionContext()));
+        storeRepository.update(persisted);
+        storeRepository.updateExecutionContext(persisted);
+        return persisted;
+    }
+}
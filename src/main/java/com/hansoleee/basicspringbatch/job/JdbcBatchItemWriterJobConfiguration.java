@@ -1,19 +1,24 @@
 package com.hansoleee.basicspringbatch.job;
 
 import com.hansoleee.basicspringbatch.entity.Pay;
+import com.hansoleee.basicspringbatch.entity.PayJdbcMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
+import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.database.JdbcBatchItemWriter;
 import org.springframework.batch.item.database.JdbcCursorItemReader;
 import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
 import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
 
 import javax.sql.DataSource;
 
@@ -25,22 +30,68 @@ public class JdbcBatchItemWriterJobConfiguration {
     private final JobBuilderFactory jobBuilderFactory;
     private final StepBuilderFactory stepBuilderFactory;
     private final DataSource dataSource;
+    private final JobExplorer jobExplorer;
+    private final BatchTaskExecutorFactory taskExecutorFactory;
 
     public static final int chunkSize = 10;
 
     @Bean
     public Job jdbcBatchItemWriterJob() {
         return jobBuilderFactory.get("jdbcBatchItemWriterJob")
-                .start(jdbcBatchItemWriterStep())
+                .listener(new PayWatermark(jobExplorer, dataSource))
+                .start(jdbcBatchItemWriterStep(null, null, null, null, null, null, null, null))
                 .build();
     }
 
+    /**
+     * bulk=auto 이면 DB 종류에 맞는 방식(LOAD DATA / CSVREAD)으로, bulk=insert 이면 multi-row INSERT 로 pay2 에 적재한다.
+     * chunkPolicy=adaptive 이면 chunk 의 write + commit 시간이 targetChunkMillis 에 맞도록 chunk 크기를 조절한다.
+     * chunkLayout=columnar 이면 Pay 객체 대신 blockSize 건씩 PayColumns(컬럼 배열)로 읽고 쓴다. (chunk 하나 = blockSize 건)
+     * incremental=true 이면 PayWatermark 가 정한 id 범위 (from, to] 만 읽는다.
+     */
     @Bean
-    public Step jdbcBatchItemWriterStep() {
-        return stepBuilderFactory.get("jdbcBatchItemWriterStep")
-                .<Pay, Pay>chunk(chunkSize)
-                .reader(jdbcBatchItemWriterReader())
-                .writer(jdbcBatchItemWriter())
+    @JobScope
+    public Step jdbcBatchItemWriterStep(@Value("#{jobParameters[concurrency] ?: 1}") Integer concurrency,
+                                        @Value("#{jobParameters[bulk] ?: 'none'}") String bulk,
+                                        @Value("#{jobParameters[chunkPolicy] ?: 'fixed'}") String chunkPolicy,
+                                        @Value("#{jobParameters[targetChunkMillis] ?: 500}") Long targetChunkMillis,
+                                        @Value("#{jobParameters[chunkLayout] ?: 'row'}") String chunkLayout,
+                                        @Value("#{jobParameters[blockSize] ?: 1000}") Integer blockSize,
+                                        @Value("#{jobExecutionContext['" + PayWatermark.FROM + "']}") Long watermarkFrom,
+                                        @Value("#{jobExecutionContext['" + PayWatermark.TO + "']}") Long watermarkTo) {
+        StepBuilder stepBuilder = stepBuilderFactory.get("jdbcBatchItemWriterStep");
+        if ("columnar".equals(chunkLayout)) {
+            PayColumnsItemReader columnsReader = new PayColumnsItemReader(dataSource, blockSize);
+            if (watermarkTo != null) {
+                columnsReader.setIdRange(watermarkFrom, watermarkTo);
+            }
+            SimpleStepBuilder<PayColumns, PayColumns> columnsBuilder = stepBuilder
+                    .<PayColumns, PayColumns>chunk(1)
+                    .reader(columnsReader)
+                    .writer(new PayColumnsItemWriter(dataSource));
+            if (watermarkTo != null) {
+                PayWatermark.trackCommitted(columnsBuilder, watermarkFrom);
+            }
+            return columnsBuilder.build();
+        }
+
+        JdbcCursorItemReader<Pay> reader = watermarkTo == null
+                ? jdbcBatchItemWriterReader()
+                : jdbcBatchItemWriterIncrementalReader(watermarkFrom, watermarkTo);
+        SimpleStepBuilder<Pay, Pay> builder;
+        if ("adaptive".equals(chunkPolicy)) {
+            // cursor 의 fetchSize 는 open 할 때만 적용되므로 chunk 크기만 조절한다.
+            builder = new AdaptiveChunkSizePolicy(chunkSize, targetChunkMillis).chunk(stepBuilder);
+        } else {
+            builder = stepBuilder.chunk(chunkSize);
+        }
+
+        MultiThreadedStep.reader(builder, reader, "jdbcBatchItemWriter", concurrency, taskExecutorFactory);
+        if (watermarkTo != null) {
+            PayWatermark.trackCommitted(builder, watermarkFrom);
+        }
+        return builder
+                .writer("none".equals(bulk) ? jdbcBatchItemWriter() : pay2BulkItemWriter(bulk))
                 .build();
     }
 
@@ -49,12 +100,31 @@ public class JdbcBatchItemWriterJobConfiguration {
         return new JdbcCursorItemReaderBuilder<Pay>()
                 .fetchSize(chunkSize)
                 .dataSource(dataSource)
-                .rowMapper(new BeanPropertyRowMapper<>(Pay.class))
-                .sql("SELECT id, amount, tx_name, tx_date_time FROM pay")
+                .rowMapper(new PayJdbcMapper())
+                .sql("SELECT id, amount, tx_name, tx_date_time FROM pay ORDER BY id")
                 .name("jdbcBatchItemWriter")
                 .build();
     }
 
+    private JdbcCursorItemReader<Pay> jdbcBatchItemWriterIncrementalReader(long watermarkFrom, long watermarkTo) {
+        return new JdbcCursorItemReaderBuilder<Pay>()
+                .fetchSize(chunkSize)
+                .dataSource(dataSource)
+                .rowMapper(new PayJdbcMapper())
+                .sql("SELECT id, amount, tx_name, tx_date_time FROM pay WHERE id > ? AND id <= ? ORDER BY id")
+                .queryArguments(watermarkFrom, watermarkTo)
+                .name("jdbcBatchItemWriter")
+                .build();
+    }
+
+    private Pay2BulkItemWriter pay2BulkItemWriter(String bulk) {
+        Pay2BulkItemWriter.Strategy strategy = "insert".equals(bulk)
+                ? Pay2BulkItemWriter.Strategy.MULTI_ROW_INSERT
+                : Pay2BulkItemWriter.Strategy.detect(dataSource);
+        log.info(">>>>> pay2 bulk strategy = {}", strategy);
+        return new Pay2BulkItemWriter(dataSource, strategy);
+    }
+
     /**
      * reader에서 넘어온 데이터를 하나씩 출력하는 writer
      */
@@ -63,7 +133,7 @@ public class JdbcBatchItemWriterJobConfiguration {
         return new JdbcBatchItemWriterBuilder<Pay>()
                 .dataSource(dataSource)
                 .sql("INSERT INTO pay2(amount, tx_name, tx_date_time) values (:amount, :txName, :txDateTime)")
-                .beanMapped()
+                .itemSqlParameterSourceProvider(new PayJdbcMapper())
                 .build();
     }
 }
@@ -1,18 +1,22 @@
 package com.hansoleee.basicspringbatch.job;
 
 import com.hansoleee.basicspringbatch.entity.Pay;
+import com.hansoleee.basicspringbatch.entity.PayJdbcMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.database.JdbcCursorItemReader;
 import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
 
 import javax.sql.DataSource;
 
@@ -24,21 +28,38 @@ public class JdbcCursorItemReaderJobConfiguration {
     private final JobBuilderFactory jobBuilderFactory;
     private final StepBuilderFactory stepBuilderFactory;
     private final DataSource dataSource;
+    private final JobExplorer jobExplorer;
+    private final BatchTaskExecutorFactory taskExecutorFactory;
 
     public static final int chunkSize = 10;
 
     @Bean
     public Job jdbcCursorItemReaderJob() {
         return jobBuilderFactory.get("jdbcCursorItemReaderJob")
-                .start(jdbcCursorItemReaderStep())
+                .listener(new PayWatermark(jobExplorer, dataSource))
+                .start(jdbcCursorItemReaderStep(null, null, null))
                 .build();
     }
 
+    /**
+     * incremental=true 이면 PayWatermark 가 정한 id 범위 (from, to] 만 읽는다.
+     */
     @Bean
-    public Step jdbcCursorItemReaderStep() {
-        return stepBuilderFactory.get("jdbcCursorItemReaderStep")
-                .<Pay, Pay>chunk(chunkSize)
-                .reader(jdbcCursorItemReader())
+    @JobScope
+    public Step jdbcCursorItemReaderStep(@Value("#{jobParameters[concurrency] ?: 1}") Integer concurrency,
+                                         @Value("#{jobExecutionContext['" + PayWatermark.FROM + "']}") Long watermarkFrom,
+                                         @Value("#{jobExecutionContext['" + PayWatermark.TO + "']}") Long watermarkTo) {
+        SimpleStepBuilder<Pay, Pay> builder = stepBuilderFactory.get("jdbcCursorItemReaderStep")
+                .<Pay, Pay>chunk(chunkSize);
+
+        JdbcCursorItemReader<Pay> reader = watermarkTo == null
+                ? jdbcCursorItemReader()
+                : jdbcCursorItemReaderIncremental(watermarkFrom, watermarkTo);
+        MultiThreadedStep.reader(builder, reader, "jdbcCursorItemReader", concurrency, taskExecutorFactory);
+        if (watermarkTo != null) {
+            PayWatermark.trackCommitted(builder, watermarkFrom);
+        }
+        return builder
                 .writer(jdbcCursorItemWriter())
                 .build();
     }
@@ -48,8 +69,19 @@ public class JdbcCursorItemReaderJobConfiguration {
         return new JdbcCursorItemReaderBuilder<Pay>()
                 .fetchSize(chunkSize)
                 .dataSource(dataSource)
-                .rowMapper(new BeanPropertyRowMapper<>(Pay.class))
-                .sql("SELECT id, amount, tx_name, tx_date_time FROM pay")
+                .rowMapper(new PayJdbcMapper())
+                .sql("SELECT id, amount, tx_name, tx_date_time FROM pay ORDER BY id")
+                .name("jdbcCursorItemReader")
+                .build();
+    }
+
+    private JdbcCursorItemReader<Pay> jdbcCursorItemReaderIncremental(long watermarkFrom, long watermarkTo) {
+        return new JdbcCursorItemReaderBuilder<Pay>()
+                .fetchSize(chunkSize)
+                .dataSource(dataSource)
+                .rowMapper(new PayJdbcMapper())
+                .sql("SELECT id, amount, tx_name, tx_date_time FROM pay WHERE id > ? AND id <= ? ORDER BY id")
+                .queryArguments(watermarkFrom, watermarkTo)
                 .name("jdbcCursorItemReader")
                 .build();
     }
@@ -1,21 +1,24 @@
 package com.hansoleee.basicspringbatch.job;
 
 import com.hansoleee.basicspringbatch.entity.Pay;
+import com.hansoleee.basicspringbatch.entity.PayJdbcMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.database.JdbcPagingItemReader;
 import org.springframework.batch.item.database.Order;
 import org.springframework.batch.item.database.PagingQueryProvider;
 import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
 import org.springframework.batch.item.database.support.SqlPagingQueryProviderFactoryBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
 
 import javax.sql.DataSource;
 import java.util.HashMap;
@@ -29,21 +32,24 @@ public class JdbcPagingItemReaderJobConfiguration {
     private final JobBuilderFactory jobBuilderFactory;
     private final StepBuilderFactory stepBuilderFactory;
     private final DataSource dataSource;
+    private final BatchTaskExecutorFactory taskExecutorFactory;
 
     public static final int chunkSize = 10;
 
     @Bean
     public Job jdbcPagingItemReaderJob() throws Exception {
         return jobBuilderFactory.get("jdbcPagingItemReaderJob")
-                .start(jdbcPagingItemReaderStep())
+                .start(jdbcPagingItemReaderStep(null))
                 .build();
     }
 
     @Bean
-    public Step jdbcPagingItemReaderStep() throws Exception {
-        return stepBuilderFactory.get("jdbcPagingItemReaderStep")
-                .<Pay, Pay>chunk(chunkSize)
-                .reader(jdbcPagingItemReader())
+    @JobScope
+    public Step jdbcPagingItemReaderStep(@Value("#{jobParameters[concurrency] ?: 1}") Integer concurrency) throws Exception {
+        SimpleStepBuilder<Pay, Pay> builder = stepBuilderFactory.get("jdbcPagingItemReaderStep")
+                .<Pay, Pay>chunk(chunkSize);
+
+        return MultiThreadedStep.reader(builder, jdbcPagingItemReader(), "jdbcPagingItemReader", concurrency, taskExecutorFactory)
                 .writer(jdbcPagingItemWriter())
                 .build();
     }
@@ -57,7 +63,7 @@ public class JdbcPagingItemReaderJobConfiguration {
                 .pageSize(chunkSize)
                 .fetchSize(chunkSize)
                 .dataSource(dataSource)
-                .rowMapper(new BeanPropertyRowMapper<>(Pay.class))
+                .rowMapper(new PayJdbcMapper())
                 .queryProvider(createQueryProvider())
                 .parameterValues(parameterValues)
                 .name("jdbcPagingItemReader")
@@ -0,0 +1,155 @@
+package com.hansoleee.basicspringbatch.job;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.configuration.annotation.BatchConfigurer;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.explore.support.JobExplorerFactoryBean;
+import org.springframework.batch.core.repository.ExecutionContextSerializer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.dao.Jackson2ExecutionContextStringSerializer;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.batch.core.repository.support.SimpleJobRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.batch.BatchProperties;
+import org.springframework.boot.autoconfigure.batch.JpaBatchConfigurer;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Job Repository 설정
+ *
+ * batch.context.serializer=compact 이면 CompactExecutionContextSerializer 로 저장한다. (기본값 json, 기존 JSON 은 그대로 읽는다)
+ * batch.context.skip-unchanged=true 이면 chunk 사이에 바뀌지 않은 Step ExecutionContext 는 UPDATE 하지 않는다.
+ * ex) --job.name=jdbcPagingItemReaderJob --batch.context.serializer=compact --batch.context.skip-unchanged=true
+ *
+ * batch.repository.in-memory=true 이면 preventRestart 된 Job 은 실행 중에는 메모리에만 기록하고 끝날 때 DB 에 저장한다.
+ * (false 면 JobRepository 를 감싸지 않는다)
+ * ex) --job.name=processorNullBatch --batch.repository.in-memory=true
+ *
+ * JobExplorer(재시작, Remote Partitioning Worker)도 같은 Serializer 로 읽어야 하므로 BatchConfigurer 를 직접 등록한다.
+ */
+@Configuration
+public class JobRepositoryConfiguration {
+
+    @Bean
+    public ExecutionContextSerializer executionContextSerializer(@Value("${batch.context.serializer:json}") String serializer) {
+        if ("compact".equals(serializer)) {
+            return new CompactExecutionContextSerializer();
+        }
+        return new Jackson2ExecutionContextStringSerializer();
+    }
+
+    @Bean
+    public BatchConfigurer batchConfigurer(BatchProperties properties, DataSource dataSource,
+                                           ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers,
+                                           EntityManagerFactory entityManagerFactory,
+                                           ExecutionContextSerializer executionContextSerializer,
+                                           @Value("${batch.context.skip-unchanged:false}") boolean skipUnchanged,
+                                           @Value("${batch.repository.in-memory:false}") boolean inMemory,
+                                           ObjectProvider<Job> jobs) {
+        Supplier<Set<String>> inMemoryJobNames = inMemory ? nonRestartableJobNames(jobs) : null;
+        return new JobRepositoryBatchConfigurer(properties, dataSource, transactionManagerCustomizers.getIfAvailable(),
+                entityManagerFactory, executionContextSerializer, skipUnchanged, inMemoryJobNames);
+    }
+
+    /**
+     * Job 빈들이 JobRepository 를 사용하므로 처음 Job 을 실행할 때 찾는다.
+     */
+    private static Supplier<Set<String>> nonRestartableJobNames(ObjectProvider<Job> jobs) {
+        return new Supplier<>() {
+            private volatile Set<String> names;
+
+            @Override
+            public Set<String> get() {
+                if (names == null) {
+                    names = jobs.stream()
+                            .filter(job -> !job.isRestartable())
+                            .map(Job::getName)
+                            .collect(Collectors.toSet());
+                }
+                return names;
+            }
+        };
+    }
+
+    static class JobRepositoryBatchConfigurer extends JpaBatchConfigurer {
+
+        private final BatchProperties properties;
+        private final DataSource dataSource;
+        private final ExecutionContextSerializer serializer;
+        private final boolean skipUnchanged;
+        private final Supplier<Set<String>> inMemoryJobNames;
+
+        JobRepositoryBatchConfigurer(BatchProperties properties, DataSource dataSource,
+                                     TransactionManagerCustomizers transactionManagerCustomizers,
+                                     EntityManagerFactory entityManagerFactory,
+                                     ExecutionContextSerializer serializer, boolean skipUnchanged,
+                                     Supplier<Set<String>> inMemoryJobNames) {
+            super(properties, dataSource, transactionManagerCustomizers, entityManagerFactory);
+            this.properties = properties;
+            this.dataSource = dataSource;
+            this.serializer = serializer;
+            this.skipUnchanged = skipUnchanged;
+            this.inMemoryJobNames = inMemoryJobNames;
+        }
+
+        @Override
+        protected JobRepository createJobRepository() throws Exception {
+            StoreJobRepositoryFactoryBean factory = new StoreJobRepositoryFactoryBean();
+            factory.setDataSource(dataSource);
+            factory.setTransactionManager(getTransactionManager());
+            String isolationLevel = determineIsolationLevel();
+            if (isolationLevel != null) {
+                factory.setIsolationLevelForCreate(isolationLevel);
+            }
+            factory.setSerializer(serializer);
+            if (StringUtils.hasText(properties.getJdbc().getTablePrefix())) {
+                factory.setTablePrefix(properties.getJdbc().getTablePrefix());
+            }
+            factory.afterPropertiesSet();
+
+            JobRepository jobRepository = factory.getObject();
+            if (skipUnchanged) {
+                jobRepository = new SkipUnchangedExecutionContextInterceptor().proxy(jobRepository);
+            }
+            if (inMemoryJobNames == null) {
+                return jobRepository;
+            }
+            return new InMemoryJobRepositoryInterceptor(jobRepository, factory.getStoreRepository(), getTransactionManager(),
+                    inMemoryJobNames).proxy();
+        }
+
+        @Override
+        protected JobExplorer createJobExplorer() throws Exception {
+            JobExplorerFactoryBean factory = new JobExplorerFactoryBean();
+            factory.setDataSource(dataSource);
+            factory.setSerializer(serializer);
+            if (StringUtils.hasText(properties.getJdbc().getTablePrefix())) {
+                factory.setTablePrefix(properties.getJdbc().getTablePrefix());
+            }
+            factory.afterPropertiesSet();
+            return factory.getObject();
+        }
+    }
+
+    /**
+     * 트랜잭션 proxy 없이 DAO 만 묶은 SimpleJobRepository 도 만들어 주는 FactoryBean
+     * InMemoryJobRepositoryInterceptor 가 끝난 Job 을 바깥 트랜잭션 하나로 저장할 때 사용한다.
+     */
+    static class StoreJobRepositoryFactoryBean extends JobRepositoryFactoryBean {
+
+        JobRepository getStoreRepository() throws Exception {
+            return new SimpleJobRepository(createJobInstanceDao(), createJobExecutionDao(), createStepExecutionDao(),
+                    createExecutionContextDao());
+        }
+    }
+}
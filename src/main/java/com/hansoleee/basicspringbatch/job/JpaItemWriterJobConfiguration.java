@@ -4,18 +4,27 @@ import com.hansoleee.basicspringbatch.entity.Pay;
 import com.hansoleee.basicspringbatch.entity.Pay2;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
+import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.database.HibernateCursorItemReader;
 import org.springframework.batch.item.database.JpaItemWriter;
-import org.springframework.batch.item.database.JpaPagingItemReader;
-import org.springframework.batch.item.database.builder.JpaPagingItemReaderBuilder;
+import org.springframework.batch.item.database.builder.HibernateCursorItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.Map;
 
 @Slf4j
 @Configuration
@@ -25,33 +34,122 @@ public class JpaItemWriterJobConfiguration {
     private final JobBuilderFactory jobBuilderFactory;
     private final StepBuilderFactory stepBuilderFactory;
     private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+    private final JobExplorer jobExplorer;
+    private final BatchTaskExecutorFactory taskExecutorFactory;
 
     public static final int chunkSize = 10;
 
     @Bean
     public Job jpaItemWriterJob() {
         return jobBuilderFactory.get("jpaItemWriterJob")
-                .start(jpaItemWriterStep())
+                .listener(new PayWatermark(jobExplorer, dataSource))
+                .start(jpaItemWriterStep(null, null, null, null, null, null))
                 .build();
     }
 
+    /**
+     * session=stateless 이면 영속성 컨텍스트 없이 StatelessSession 으로 읽고 쓴다. (chunkSize 와 관계없이 heap 사용량 일정)
+     * chunkPolicy=adaptive 이면 chunk 의 write + commit 시간이 targetChunkMillis 에 맞도록 chunk 크기와 pageSize 를 조절한다.
+     * incremental=true 이면 PayWatermark 가 정한 id 범위 (from, to] 만 읽는다.
+     */
     @Bean
-    public Step jpaItemWriterStep() {
-        return stepBuilderFactory.get("jpaItemWriterStep")
-                .<Pay, Pay2>chunk(chunkSize)
-                .reader(jpaItemWriterReader())
+    @JobScope
+    public Step jpaItemWriterStep(@Value("#{jobParameters[concurrency] ?: 1}") Integer concurrency,
+                                  @Value("#{jobParameters[session] ?: 'jpa'}") String session,
+                                  @Value("#{jobParameters[chunkPolicy] ?: 'fixed'}") String chunkPolicy,
+                                  @Value("#{jobParameters[targetChunkMillis] ?: 500}") Long targetChunkMillis,
+                                  @Value("#{jobExecutionContext['" + PayWatermark.FROM + "']}") Long watermarkFrom,
+                                  @Value("#{jobExecutionContext['" + PayWatermark.TO + "']}") Long watermarkTo) {
+        boolean stateless = "stateless".equals(session);
+        boolean adaptive = "adaptive".equals(chunkPolicy);
+        JpaKeysetItemReader<Pay> keysetReader = null;
+        ItemStreamReader<Pay> reader;
+        if (stateless) {
+            reader = watermarkTo == null
+                    ? jpaItemWriterStatelessReader()
+                    : jpaItemWriterStatelessIncrementalReader(watermarkFrom, watermarkTo);
+        } else {
+            if (watermarkTo != null) {
+                keysetReader = jpaItemWriterIncrementalReader(watermarkFrom, watermarkTo);
+            } else {
+                // adaptive 는 pageSize 를 바꾸므로 singleton bean 이 아닌 이번 실행 전용 reader 를 사용한다.
+                keysetReader = adaptive ? newJpaItemWriterReader() : jpaItemWriterReader();
+            }
+            reader = keysetReader;
+        }
+
+        StepBuilder stepBuilder = stepBuilderFactory.get("jpaItemWriterStep");
+        SimpleStepBuilder<Pay, Pay2> builder;
+        if (adaptive) {
+            AdaptiveChunkSizePolicy policy = new AdaptiveChunkSizePolicy(chunkSize, targetChunkMillis);
+            if (keysetReader != null) {
+                // cursor(stateless)의 fetchSize 는 open 할 때만 적용되므로 keyset reader 의 pageSize 만 맞춘다.
+                policy.addChunkSizeListener(keysetReader::setPageSize);
+            }
+            builder = policy.chunk(stepBuilder);
+        } else {
+            builder = stepBuilder.chunk(chunkSize);
+        }
+
+        MultiThreadedStep.reader(builder, reader, "jpaItemWriterReader", concurrency, taskExecutorFactory);
+        if (watermarkTo != null) {
+            PayWatermark.trackCommitted(builder, watermarkFrom);
+        }
+        return builder
                 .processor(jpaItemProcessor())
-                .writer(jpaItemWriter())
+                .writer(stateless ? jpaItemWriterStatelessWriter() : jpaItemWriter())
                 .build();
     }
 
     @Bean
-    public JpaPagingItemReader<Pay> jpaItemWriterReader() {
-        return new JpaPagingItemReaderBuilder<Pay>()
-                .name("jpaItemWriterReader")
-                .entityManagerFactory(entityManagerFactory)
-                .pageSize(chunkSize)
-                .queryString("SELECT p FROM Pay p")
+    public JpaKeysetItemReader<Pay> jpaItemWriterReader() {
+        return newJpaItemWriterReader();
+    }
+
+    private JpaKeysetItemReader<Pay> newJpaItemWriterReader() {
+        JpaKeysetItemReader<Pay> reader = new JpaKeysetItemReader<>();
+        reader.setName("jpaItemWriterReader");
+        reader.setEntityManagerFactory(entityManagerFactory);
+        reader.setPageSize(chunkSize);
+        reader.setQueryString("SELECT p FROM Pay p WHERE p.id > :lastId ORDER BY p.id");
+        reader.setIdExtractor(Pay::getId);
+        reader.afterPropertiesSet();
+        return reader;
+    }
+
+    @Bean
+    public HibernateCursorItemReader<Pay> jpaItemWriterStatelessReader() {
+        return new HibernateCursorItemReaderBuilder<Pay>()
+                .name("jpaItemWriterStatelessReader")
+                .sessionFactory(entityManagerFactory.unwrap(SessionFactory.class))
+                .queryString("SELECT p FROM Pay p ORDER BY p.id")
+                .fetchSize(chunkSize)
+                .useStatelessSession(true)
+                .build();
+    }
+
+    private JpaKeysetItemReader<Pay> jpaItemWriterIncrementalReader(long watermarkFrom, long watermarkTo) {
+        JpaKeysetItemReader<Pay> reader = new JpaKeysetItemReader<>();
+        reader.setName("jpaItemWriterReader");
+        reader.setEntityManagerFactory(entityManagerFactory);
+        reader.setPageSize(chunkSize);
+        reader.setQueryString("SELECT p FROM Pay p WHERE p.id > :lastId AND p.id <= :watermarkTo ORDER BY p.id");
+        reader.setParameterValues(Map.of("watermarkTo", watermarkTo));
+        reader.setStartAfterId(watermarkFrom);
+        reader.setIdExtractor(Pay::getId);
+        reader.afterPropertiesSet();
+        return reader;
+    }
+
+    private HibernateCursorItemReader<Pay> jpaItemWriterStatelessIncrementalReader(long watermarkFrom, long watermarkTo) {
+        return new HibernateCursorItemReaderBuilder<Pay>()
+                .name("jpaItemWriterStatelessReader")
+                .sessionFactory(entityManagerFactory.unwrap(SessionFactory.class))
+                .queryString("SELECT p FROM Pay p WHERE p.id > :watermarkFrom AND p.id <= :watermarkTo ORDER BY p.id")
+                .parameterValues(Map.of("watermarkFrom", watermarkFrom, "watermarkTo", watermarkTo))
+                .fetchSize(chunkSize)
+                .useStatelessSession(true)
                 .build();
     }
 
@@ -66,4 +164,9 @@ public class JpaItemWriterJobConfiguration {
         jpaItemWriter.setEntityManagerFactory(entityManagerFactory);
         return jpaItemWriter;
     }
+
+    @Bean
+    public StatelessSessionItemWriter<Pay2> jpaItemWriterStatelessWriter() {
+        return new StatelessSessionItemWriter<>(entityManagerFactory, dataSource);
+    }
 }
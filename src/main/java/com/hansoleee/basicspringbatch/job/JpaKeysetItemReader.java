@@ -0,0 +1,169 @@
+package com.hansoleee.basicspringbatch.job;
+
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * OFFSET(setFirstResult) 대신 마지막으로 읽은 id 다음부터 조회하는 JPA ItemReader
+ * queryString은 ":lastId" 파라미터와 id 오름차순 정렬을 포함해야 한다.
+ * ex) SELECT p FROM Pay p WHERE p.id > :lastId ORDER BY p.id
+ *
+ * 마지막으로 읽은 id는 ExecutionContext에 저장되어 재시작 시 그 다음 id부터 다시 읽는다.
+ * 처음 실행할 때의 :lastId 는 startAfterId (기본값 Long.MIN_VALUE) 이다.
+ *
+ * fetchQueryString을 지정하면 queryString으로 한 페이지의 id만 조회한 뒤
+ * fetchQueryString(":ids" 파라미터)으로 엔티티와 연관관계를 fetch join 하여 페이지당 2번의 쿼리로 읽는다.
+ * ex) SELECT t.id FROM Teacher t WHERE t.id > :lastId ORDER BY t.id
+ *     SELECT DISTINCT t FROM Teacher t LEFT JOIN FETCH t.studentList WHERE t.id IN :ids ORDER BY t.id
+ */
+public class JpaKeysetItemReader<T> extends AbstractItemCountingItemStreamItemReader<T> implements InitializingBean {
+
+    public static final String LAST_ID_PARAMETER = "lastId";
+    public static final String IDS_PARAMETER = "ids";
+    private static final String LAST_ID = "last.id";
+
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private String queryString;
+    private String fetchQueryString;
+    private Function<T, Long> idExtractor;
+    private Map<String, Object> parameterValues = new HashMap<>();
+    private volatile int pageSize = 10;
+    private long startAfterId = Long.MIN_VALUE;
+
+    private Long lastId;
+    private List<T> results = new ArrayList<>();
+    private int current = 0;
+
+    public JpaKeysetItemReader() {
+        setName(ClassUtils.getShortName(JpaKeysetItemReader.class));
+    }
+
+    public void setEntityManagerFactory(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void setQueryString(String queryString) {
+        this.queryString = queryString;
+    }
+
+    public void setFetchQueryString(String fetchQueryString) {
+        this.fetchQueryString = fetchQueryString;
+    }
+
+    public void setIdExtractor(Function<T, Long> idExtractor) {
+        this.idExtractor = idExtractor;
+    }
+
+    public void setParameterValues(Map<String, Object> parameterValues) {
+        this.parameterValues = parameterValues;
+    }
+
+    public void setStartAfterId(long startAfterId) {
+        this.startAfterId = startAfterId;
+    }
+
+    /**
+     * 다음 페이지 조회부터 적용되므로 읽는 도중에 바꿔도 된다. (AdaptiveChunkSizePolicy)
+     */
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        Assert.notNull(entityManagerFactory, "EntityManagerFactory is required");
+        Assert.hasText(queryString, "Query string is required");
+        Assert.isTrue(queryString.contains(":" + LAST_ID_PARAMETER), "Query string must contain :" + LAST_ID_PARAMETER);
+        Assert.isTrue(fetchQueryString == null || fetchQueryString.contains(":" + IDS_PARAMETER), "Fetch query string must contain :" + IDS_PARAMETER);
+        Assert.notNull(idExtractor, "Id extractor is required");
+        Assert.isTrue(pageSize > 0, "pageSize must be greater than zero");
+    }
+
+    @Override
+    protected void doOpen() {
+        entityManager = entityManagerFactory.createEntityManager();
+        if (entityManager == null) {
+            throw new ItemStreamException("Error creating an EntityManager");
+        }
+    }
+
+    @Override
+    protected T doRead() {
+        if (current >= results.size()) {
+            readPage();
+            if (results.isEmpty()) {
+                return null;
+            }
+        }
+
+        T item = results.get(current++);
+        lastId = idExtractor.apply(item);
+        return item;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readPage() {
+        // 이전 페이지의 엔티티가 영속성 컨텍스트에 쌓이지 않도록 비운다.
+        entityManager.clear();
+
+        Query query = entityManager.createQuery(queryString);
+        parameterValues.forEach(query::setParameter);
+        query.setParameter(LAST_ID_PARAMETER, lastId == null ? startAfterId : lastId);
+        query.setMaxResults(pageSize);
+
+        List<?> page = query.getResultList();
+        if (fetchQueryString != null && !page.isEmpty()) {
+            page = entityManager.createQuery(fetchQueryString)
+                    .setParameter(IDS_PARAMETER, page)
+                    .getResultList();
+        }
+
+        results = (List<T>) page;
+        current = 0;
+    }
+
+    @Override
+    protected void jumpToItem(int itemIndex) {
+        // lastId로 바로 이동하므로 앞의 item들을 다시 읽지 않는다.
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        super.open(executionContext);
+        if (isSaveState() && executionContext.containsKey(getExecutionContextKey(LAST_ID))) {
+            lastId = executionContext.getLong(getExecutionContextKey(LAST_ID));
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        super.update(executionContext);
+        if (isSaveState() && lastId != null) {
+            executionContext.putLong(getExecutionContextKey(LAST_ID), lastId);
+        }
+    }
+
+    @Override
+    protected void doClose() {
+        if (entityManager != null) {
+            entityManager.close();
+        }
+        lastId = null;
+        results = new ArrayList<>();
+        current = 0;
+    }
+}
@@ -6,10 +6,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
 import org.springframework.batch.item.ItemWriter;
-import org.springframework.batch.item.database.JpaPagingItemReader;
-import org.springframework.batch.item.database.builder.JpaPagingItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -23,33 +24,37 @@ public class JpaPagingItemReaderJobConfiguration {
     private final JobBuilderFactory jobBuilderFactory;
     private final StepBuilderFactory stepBuilderFactory;
     private final EntityManagerFactory entityManagerFactory;
+    private final BatchTaskExecutorFactory taskExecutorFactory;
 
     public static final int chunkSize = 10;
 
     @Bean
     public Job jpaPagingItemReaderJob() {
         return jobBuilderFactory.get("jpaPagingItemReaderJob")
-                .start(jpaPagingItemReaderStep())
+                .start(jpaPagingItemReaderStep(null))
                 .build();
     }
 
     @Bean
-    public Step jpaPagingItemReaderStep() {
-        return stepBuilderFactory.get("jpaPagingItemReaderStep")
-                .<Pay, Pay>chunk(chunkSize)
-                .reader(jpaPagingItemReader())
+    @JobScope
+    public Step jpaPagingItemReaderStep(@Value("#{jobParameters[concurrency] ?: 1}") Integer concurrency) {
+        SimpleStepBuilder<Pay, Pay> builder = stepBuilderFactory.get("jpaPagingItemReaderStep")
+                .<Pay, Pay>chunk(chunkSize);
+
+        return MultiThreadedStep.reader(builder, jpaPagingItemReader(), "jpaPagingItemReader", concurrency, taskExecutorFactory)
                 .writer(jpaPagingItemWriter())
                 .build();
     }
 
     @Bean
-    public JpaPagingItemReader<Pay> jpaPagingItemReader() {
-        return new JpaPagingItemReaderBuilder<Pay>()
-                .name("jpaPagingItemReader")
-                .entityManagerFactory(entityManagerFactory)
-                .pageSize(chunkSize)
-                .queryString("SELECT p FROM Pay p WHERE amount >= 2000")
-                .build();
+    public JpaKeysetItemReader<Pay> jpaPagingItemReader() {
+        JpaKeysetItemReader<Pay> reader = new JpaKeysetItemReader<>();
+        reader.setName("jpaPagingItemReader");
+        reader.setEntityManagerFactory(entityManagerFactory);
+        reader.setPageSize(chunkSize);
+        reader.setQueryString("SELECT p FROM Pay p WHERE p.amount >= 2000 AND p.id > :lastId ORDER BY p.id");
+        reader.setIdExtractor(Pay::getId);
+        return reader;
     }
 
     private ItemWriter<Pay> jpaPagingItemWriter() {
@@ -0,0 +1,188 @@
+package com.hansoleee.basicspringbatch.job;
+
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * item 을 RecordEncoder 로 MappedByteBuffer 에 바로 인코딩해서 파일로 내보내는 Writer
+ *
+ * FlatFileItemWriter 처럼 line 마다 String 을 만들지 않고, 파일을 regionSize 단위로 매핑해서 byte 를 직접 쓴다.
+ * 쓴 위치(offset)를 chunk 마다 ExecutionContext 에 저장하고(저장 전에 force), 재시작 시 파일을 그 위치로 잘라낸 뒤 이어서 쓴다.
+ * chunk 트랜잭션이 rollback 되면 마지막으로 commit 된 위치로 되돌린다.
+ *
+ * 매핑하면 파일이 region 끝까지 늘어나므로 close 시 실제로 쓴 위치로 잘라낸다.
+ */
+public class MappedFileItemWriter<T> extends ItemStreamSupport implements ItemStreamWriter<T> {
+
+    public static final long DEFAULT_REGION_SIZE = 64L * 1024 * 1024;
+    private static final String OFFSET = "offset";
+
+    /**
+     * buffer 에 item 하나를 쓴다. 공간이 부족하면 BufferOverflowException 을 던지고, Writer 가 다음 region 을 매핑해서 다시 호출한다.
+     */
+    @FunctionalInterface
+    public interface RecordEncoder<T> {
+        void encode(T item, ByteBuffer buffer);
+    }
+
+    private final Path path;
+    private final RecordEncoder<T> encoder;
+    private byte[] header;
+    private long regionSize = DEFAULT_REGION_SIZE;
+
+    private FileChannel channel;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private volatile long committed;
+
+    public MappedFileItemWriter(Path path, RecordEncoder<T> encoder) {
+        this.path = path;
+        this.encoder = encoder;
+        setName(ClassUtils.getShortName(MappedFileItemWriter.class));
+    }
+
+    /**
+     * 처음부터 쓸 때만 파일 맨 앞에 쓴다. (ex. CSV 컬럼명)
+     */
+    public void setHeader(byte[] header) {
+        this.header = header;
+    }
+
+    public void setRegionSize(long regionSize) {
+        this.regionSize = regionSize;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        long offset = executionContext.containsKey(getExecutionContextKey(OFFSET))
+                ? executionContext.getLong(getExecutionContextKey(OFFSET))
+                : 0;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (channel.size() < offset) {
+                throw new ItemStreamException("File " + path + " is shorter (" + channel.size() + ") than the committed offset " + offset);
+            }
+            // 재시작: 마지막 commit 이후에 쓴 내용을 버린다. 처음 실행: 기존 파일을 비운다.
+            channel.truncate(offset);
+            map(offset);
+            if (offset == 0 && header != null) {
+                region.put(header);
+            }
+            committed = position();
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to open " + path, e);
+        }
+    }
+
+    @Override
+    public void write(List<? extends T> items) throws IOException {
+        registerRollback();
+        for (T item : items) {
+            int start = region.position();
+            try {
+                encoder.encode(item, region);
+            } catch (BufferOverflowException e) {
+                region.position(start);
+                map(position());
+                encoder.encode(item, region);
+            }
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        if (region == null) {
+            return;
+        }
+        region.force();
+        long position = position();
+        executionContext.putLong(getExecutionContextKey(OFFSET), position);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            committed = position;
+        }
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        if (channel == null) {
+            return;
+        }
+        try {
+            long end = position();
+            region.force();
+            region = null;
+            channel.truncate(end);
+            channel.close();
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to close " + path, e);
+        } finally {
+            channel = null;
+        }
+    }
+
+    long position() {
+        return regionStart + region.position();
+    }
+
+    private void map(long start) throws IOException {
+        if (region != null) {
+            region.force();
+        }
+        regionStart = start;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, start, regionSize);
+    }
+
+    /**
+     * 트랜잭션마다 한 번 등록해서 commit 되면 현재 위치를 기억하고, rollback 되면 기억한 위치로 되돌린다.
+     */
+    private void registerRollback() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(MappedFileItemWriter.this);
+                if (region == null) {
+                    return;
+                }
+                if (status == STATUS_COMMITTED) {
+                    committed = position();
+                } else {
+                    rewind(committed);
+                }
+            }
+        });
+    }
+
+    private void rewind(long offset) {
+        try {
+            if (offset >= regionStart) {
+                region.position((int) (offset - regionStart));
+            } else {
+                map(offset);
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to rewind " + path + " to " + offset, e);
+        }
+    }
+}
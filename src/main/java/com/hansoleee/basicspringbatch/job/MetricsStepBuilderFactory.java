@@ -0,0 +1,67 @@
+package com.hansoleee.basicspringbatch.job;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.repeat.CompletionPolicy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * 각 JobConfiguration이 주입받는 StepBuilderFactory를 대체하여
+ * chunk Step을 만들 때 BatchMetricsListener를 자동으로 등록한다.
+ */
+public class MetricsStepBuilderFactory extends StepBuilderFactory {
+
+    private final JobRepository jobRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final BatchMetricsListener listener;
+
+    public MetricsStepBuilderFactory(JobRepository jobRepository, PlatformTransactionManager transactionManager, BatchMetricsListener listener) {
+        super(jobRepository, transactionManager);
+        this.jobRepository = jobRepository;
+        this.transactionManager = transactionManager;
+        this.listener = listener;
+    }
+
+    @Override
+    public StepBuilder get(String name) {
+        return new MetricsStepBuilder(name, listener)
+                .repository(jobRepository)
+                .transactionManager(transactionManager);
+    }
+
+    static class MetricsStepBuilder extends StepBuilder {
+
+        private final BatchMetricsListener listener;
+
+        MetricsStepBuilder(String name, BatchMetricsListener listener) {
+            super(name);
+            this.listener = listener;
+        }
+
+        @Override
+        public <I, O> SimpleStepBuilder<I, O> chunk(int chunkSize) {
+            return register(super.chunk(chunkSize));
+        }
+
+        @Override
+        public <I, O> SimpleStepBuilder<I, O> chunk(CompletionPolicy completionPolicy) {
+            return register(super.chunk(completionPolicy));
+        }
+
+        private <I, O> SimpleStepBuilder<I, O> register(SimpleStepBuilder<I, O> builder) {
+            builder.listener((StepExecutionListener) listener);
+            builder.listener((ChunkListener) listener);
+            builder.listener((ItemReadListener<Object>) listener);
+            builder.listener((ItemProcessListener<Object, Object>) listener);
+            builder.listener((ItemWriteListener<Object>) listener);
+            return builder;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.hansoleee.basicspringbatch.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.listener.StepExecutionListenerSupport;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.database.AbstractCursorItemReader;
+import org.springframework.batch.item.database.HibernateCursorItemReader;
+import org.springframework.batch.item.database.JpaCursorItemReader;
+
+/**
+ * chunk Step을 concurrency 개의 쓰레드로 실행하기 위한 설정 모음
+ *
+ * concurrency 가 1 이하면 기존과 동일하게 단일 쓰레드로 실행한다.
+ * 2 이상이면 reader를 SynchronizedRestartableItemReader로 감싸고, BatchTaskExecutorFactory 가 만든 TaskExecutor를
+ * concurrency 개(connection pool 크기 이내)로 제한해서 사용하고, Step 이 끝나면 정리한다.
+ * cursor reader 는 Step 내내 connection 1개를 따로 잡고 있으므로 그 자리도 Governor 에 미리 받아둔다.
+ *
+ * ex) --job.name=jdbcCursorItemReaderJob concurrency=4
+ */
+@Slf4j
+public final class MultiThreadedStep {
+
+    private MultiThreadedStep() {
+    }
+
+    public static <I, O> SimpleStepBuilder<I, O> reader(SimpleStepBuilder<I, O> builder, ItemStreamReader<I> reader,
+                                                        String readerName, int concurrency,
+                                                        BatchTaskExecutorFactory taskExecutorFactory) {
+        if (concurrency <= 1) {
+            return builder.reader(reader);
+        }
+
+        SynchronizedRestartableItemReader<I> synchronizedReader = new SynchronizedRestartableItemReader<>(reader, readerName);
+        BatchTaskExecutorFactory.BoundedTaskExecutor taskExecutor = taskExecutorFactory.create(readerName + "-", concurrency);
+
+        builder.reader(synchronizedReader);
+        builder.listener((ChunkListener) synchronizedReader);
+        builder.listener((StepExecutionListener) new StepResourceListener(taskExecutorFactory.getGovernor(), taskExecutor,
+                readerName, readerConnections(reader)));
+        builder.taskExecutor(taskExecutor);
+        builder.throttleLimit(concurrency);
+        return builder;
+    }
+
+    /**
+     * Step 내내 connection 을 잡고 있는 cursor reader 면 1, 페이지마다 connection 을 돌려주는 reader 면 0
+     * (HibernateCursorItemReader 는 session=stateless 여부와 관계없이 ScrollableResults 를 열어 둔다)
+     */
+    static int readerConnections(ItemStreamReader<?> reader) {
+        if (reader instanceof AbstractCursorItemReader || reader instanceof JpaCursorItemReader
+                || reader instanceof HibernateCursorItemReader) {
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Step 이 열리기 전에 reader 의 connection 자리를 받고, Step 이 끝나면 돌려준 뒤 쓰레드를 정리한다.
+     * (Step(JobScope)을 만들 때마다 TaskExecutor 를 새로 만들기 때문)
+     *
+     * capacity 가 1 이면 reader 가 자리를 잡는 순간 chunk 가 영영 실행되지 못하므로 이때는 받지 않는다.
+     */
+    static class StepResourceListener extends StepExecutionListenerSupport {
+
+        private final ConnectionPoolGovernor governor;
+        private final BatchTaskExecutorFactory.BoundedTaskExecutor taskExecutor;
+        private final String readerName;
+        private final int readerConnections;
+        private int reserved;
+
+        StepResourceListener(ConnectionPoolGovernor governor, BatchTaskExecutorFactory.BoundedTaskExecutor taskExecutor,
+                             String readerName, int readerConnections) {
+            this.governor = governor;
+            this.taskExecutor = taskExecutor;
+            this.readerName = readerName;
+            this.readerConnections = readerConnections;
+        }
+
+        @Override
+        public void beforeStep(StepExecution stepExecution) {
+            if (readerConnections <= 0 || governor.getCapacity() <= readerConnections) {
+                return;
+            }
+            try {
+                governor.acquire(readerConnections, governor.waitTimer(readerName));
+                reserved = readerConnections;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("reader connection 자리를 기다리다 중단되었습니다. " + readerName, e);
+            }
+        }
+
+        @Override
+        public ExitStatus afterStep(StepExecution stepExecution) {
+            if (reserved > 0) {
+                governor.release(reserved);
+                reserved = 0;
+            }
+            try {
+                taskExecutor.destroy();
+            } catch (Exception e) {
+                log.warn(">>>>> TaskExecutor 정리 실패: {}", stepExecution.getStepName(), e);
+            }
+            return null;
+        }
+    }
+}
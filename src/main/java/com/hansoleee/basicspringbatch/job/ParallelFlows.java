@@ -0,0 +1,140 @@
+package com.hansoleee.basicspringbatch.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.job.builder.FlowBuilder;
+import org.springframework.batch.core.job.flow.Flow;
+import org.springframework.batch.core.job.flow.FlowExecution;
+import org.springframework.batch.core.job.flow.FlowExecutionException;
+import org.springframework.batch.core.job.flow.FlowExecutionStatus;
+import org.springframework.batch.core.job.flow.FlowExecutor;
+import org.springframework.batch.core.job.flow.JobExecutionDecider;
+import org.springframework.batch.core.job.flow.State;
+import org.springframework.batch.core.job.flow.support.SimpleFlow;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 서로 의존하지 않는 Step 들을 split(taskExecutor) 로 동시에 실행하기 위한 branch(Flow) 모음
+ *
+ * branch 는 name 으로 구분하고 아래 두 가지를 추가한다.
+ * - BranchDecider: Job 파라미터 branches(콤마 구분, 없으면 전체)에 포함된 branch 만 실행하고 나머지는 바로 COMPLETED 로 끝낸다.
+ *   decider 하나로 여러 branch 중 일부만 동시에 실행할 수 있다.
+ * - 실행 시간: branch 가 끝나면 JobExecution ExecutionContext 의 branch.{name}.millis 에 걸린 시간을 저장한다. (실행하지 않은 branch 는 저장하지 않는다)
+ *
+ * split 뒤에 next(step) 를 이어 붙이면 모든 branch 가 끝난 뒤에 실행된다. (join)
+ * ex) jobBuilderFactory.get(..).start(step).split(taskExecutor).add(branch("a", stepA), branch("b", stepB1, stepB2)).next(joinStep)
+ */
+@Slf4j
+public final class ParallelFlows {
+
+    public static final String BRANCHES_PARAMETER = "branches";
+    public static final String RUN = "RUN";
+    public static final String SKIP = "SKIP";
+
+    private ParallelFlows() {
+    }
+
+    public static String timingKey(String branchName) {
+        return "branch." + branchName + ".millis";
+    }
+
+    public static Flow branch(String name, Step first, Step... rest) {
+        BranchDecider decider = new BranchDecider(name);
+        FlowBuilder<SimpleFlow> builder = new FlowBuilder<SimpleFlow>(name)
+                .start(decider)
+                .on(RUN).to(first);
+        for (Step step : rest) {
+            builder.next(step);
+        }
+        SimpleFlow flow = builder
+                .from(decider).on(SKIP).end()
+                .build();
+        return new TimedFlow(flow, decider);
+    }
+
+    /**
+     * Job 파라미터 branches 에 name 이 있으면(또는 branches 가 없으면) RUN, 아니면 SKIP
+     */
+    public static class BranchDecider implements JobExecutionDecider {
+
+        private final String name;
+
+        public BranchDecider(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public FlowExecutionStatus decide(JobExecution jobExecution, StepExecution stepExecution) {
+            String branches = jobExecution.getJobParameters().getString(BRANCHES_PARAMETER);
+            if (!StringUtils.hasText(branches)) {
+                return new FlowExecutionStatus(RUN);
+            }
+            Set<String> selected = Arrays.stream(StringUtils.commaDelimitedListToStringArray(branches))
+                    .map(String::trim)
+                    .collect(Collectors.toSet());
+            return new FlowExecutionStatus(selected.contains(name) ? RUN : SKIP);
+        }
+    }
+
+    /**
+     * Flow 실행 시간을 JobExecution ExecutionContext 에 저장한다. (split 의 각 branch 는 서로 다른 쓰레드에서 실행된다)
+     */
+    static class TimedFlow implements Flow {
+
+        private final Flow delegate;
+        private final BranchDecider decider;
+
+        TimedFlow(Flow delegate, BranchDecider decider) {
+            this.delegate = delegate;
+            this.decider = decider;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public State getState(String stateName) {
+            return delegate.getState(stateName);
+        }
+
+        @Override
+        public FlowExecution start(FlowExecutor executor) throws FlowExecutionException {
+            long start = System.currentTimeMillis();
+            FlowExecution execution = delegate.start(executor);
+            record(executor, start);
+            return execution;
+        }
+
+        @Override
+        public FlowExecution resume(String stateName, FlowExecutor executor) throws FlowExecutionException {
+            long start = System.currentTimeMillis();
+            FlowExecution execution = delegate.resume(stateName, executor);
+            record(executor, start);
+            return execution;
+        }
+
+        @Override
+        public Collection<State> getStates() {
+            return delegate.getStates();
+        }
+
+        private void record(FlowExecutor executor, long start) {
+            JobExecution jobExecution = executor.getJobExecution();
+            if (!RUN.equals(decider.decide(jobExecution, null).getName())) {
+                return;
+            }
+            long millis = System.currentTimeMillis() - start;
+            jobExecution.getExecutionContext().putLong(timingKey(getName()), millis);
+            log.info(">>>>> branch {} finished in {} ms", getName(), millis);
+        }
+    }
+}
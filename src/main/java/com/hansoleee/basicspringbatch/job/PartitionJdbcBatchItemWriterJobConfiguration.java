@@ -0,0 +1,128 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.hansoleee.basicspringbatch.entity.Pay;
+import com.hansoleee.basicspringbatch.entity.PayJdbcMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
+import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.integration.channel.QueueChannel;
+
+import javax.sql.DataSource;
+
+/**
+ * jdbcBatchItemWriterJob(pay -> pay2 복사)을 id 범위로 나누어 실행하는 Partition Job
+ *
+ * partitionMode=local 이면 쓰레드로, partitionMode=remote 이면 RemotePartitionConfiguration 의 채널로 Worker JVM 들에 나누어 실행한다.
+ * 실행 예) --job.name=partitionJdbcBatchItemWriterJob gridSize=8 poolSize=4
+ * 실행 예) --job.name=partitionJdbcBatchItemWriterJob partitionMode=remote gridSize=8
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class PartitionJdbcBatchItemWriterJobConfiguration {
+
+    public static final String JOB_NAME = "partitionJdbcBatchItemWriterJob";
+    public static final String BEAN_PREFIX = JOB_NAME + "_";
+
+    private final JobBuilderFactory jobBuilderFactory;
+    private final StepBuilderFactory stepBuilderFactory;
+    private final DataSource dataSource;
+    private final JobExplorer jobExplorer;
+    private final QueueChannel remotePartitionRequests;
+    private final BatchTaskExecutorFactory taskExecutorFactory;
+
+    @Value("${chunkSize:1000}")
+    private int chunkSize;
+
+    @Value("${remotePartition.timeout:3600000}")
+    private long remotePartitionTimeout;
+
+    @Bean(JOB_NAME)
+    public Job job() throws Exception {
+        return jobBuilderFactory.get(JOB_NAME)
+                .start(step(null, null))
+                .build();
+    }
+
+    @Bean(BEAN_PREFIX + "step")
+    @JobScope
+    public Step step(@Value("#{jobParameters[gridSize] ?: 4}") Integer gridSize,
+                     @Value("#{jobParameters[partitionMode] ?: 'local'}") String partitionMode) throws Exception {
+        if ("remote".equals(partitionMode)) {
+            return stepBuilderFactory.get(BEAN_PREFIX + "step")
+                    .partitioner(BEAN_PREFIX + "workerStep", partitioner())
+                    .partitionHandler(RemotePartitionConfiguration.partitionHandler(remotePartitionRequests, jobExplorer,
+                            BEAN_PREFIX + "workerStep", gridSize, remotePartitionTimeout))
+                    .build();
+        }
+
+        return stepBuilderFactory.get(BEAN_PREFIX + "step")
+                .partitioner(BEAN_PREFIX + "workerStep", partitioner())
+                .step(workerStep())
+                .gridSize(gridSize)
+                .taskExecutor(taskExecutor(null))
+                .build();
+    }
+
+    /**
+     * partition 하나가 cursor reader 와 chunk 트랜잭션으로 connection 을 2개씩 잡는다.
+     * poolSize 를 지정하지 않으면 gridSize 만큼 요청하고, 실제 동시 실행 수는 ConnectionPoolGovernor 가 pool 크기에 맞춘다.
+     */
+    @Bean(BEAN_PREFIX + "taskExecutor")
+    @JobScope
+    public TaskExecutor taskExecutor(@Value("#{jobParameters[poolSize] ?: jobParameters[gridSize] ?: 4}") Integer poolSize) {
+        return taskExecutorFactory.create(BEAN_PREFIX, poolSize, 2);
+    }
+
+    @Bean(BEAN_PREFIX + "partitioner")
+    public IdRangePartitioner partitioner() {
+        return new IdRangePartitioner(dataSource, "pay", "id");
+    }
+
+    @Bean(BEAN_PREFIX + "workerStep")
+    public Step workerStep() {
+        return stepBuilderFactory.get(BEAN_PREFIX + "workerStep")
+                .<Pay, Pay>chunk(chunkSize)
+                .reader(reader(null, null))
+                .writer(writer())
+                .build();
+    }
+
+    @Bean(BEAN_PREFIX + "reader")
+    @StepScope
+    public JdbcCursorItemReader<Pay> reader(
+            @Value("#{stepExecutionContext[minId]}") Long minId,
+            @Value("#{stepExecutionContext[maxId]}") Long maxId) {
+        return new JdbcCursorItemReaderBuilder<Pay>()
+                .name(BEAN_PREFIX + "reader")
+                .fetchSize(chunkSize)
+                .dataSource(dataSource)
+                .rowMapper(new PayJdbcMapper())
+                .sql("SELECT id, amount, tx_name, tx_date_time FROM pay WHERE id BETWEEN ? AND ? ORDER BY id")
+                .queryArguments(minId, maxId)
+                .build();
+    }
+
+    @Bean(BEAN_PREFIX + "writer")
+    public JdbcBatchItemWriter<Pay> writer() {
+        return new JdbcBatchItemWriterBuilder<Pay>()
+                .dataSource(dataSource)
+                .sql("INSERT INTO pay2(amount, tx_name, tx_date_time) values (:amount, :txName, :txDateTime)")
+                .itemSqlParameterSourceProvider(new PayJdbcMapper())
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.hansoleee.basicspringbatch.entity.Pay;
+import com.hansoleee.basicspringbatch.entity.PayJdbcMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
+import org.springframework.batch.item.database.support.SqlPagingQueryProviderFactoryBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.integration.channel.QueueChannel;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * jdbcPagingItemReaderJob을 pay.id 구간별로 나누어 여러 쓰레드에서 실행하는 Job
+ * 파티션마다 StepExecution(ExecutionContext)이 따로 저장되기 때문에 재시작 시 실패한 구간만 다시 실행된다.
+ *
+ * 실행 예) --job.name=partitionJdbcPagingItemReaderJob gridSize=8 poolSize=4
+ *
+ * partitionMode=remote 이면 파티션을 쓰레드 대신 RemotePartitionConfiguration 의 채널로 Worker JVM 들에 보낸다.
+ * 실행 예) --job.name=partitionJdbcPagingItemReaderJob partitionMode=remote gridSize=8
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class PartitionJdbcPagingItemReaderJobConfiguration {
+
+    public static final String JOB_NAME = "partitionJdbcPagingItemReaderJob";
+    public static final String BEAN_PREFIX = JOB_NAME + "_";
+
+    private final JobBuilderFactory jobBuilderFactory;
+    private final StepBuilderFactory stepBuilderFactory;
+    private final DataSource dataSource;
+    private final JobExplorer jobExplorer;
+    private final QueueChannel remotePartitionRequests;
+    private final BatchTaskExecutorFactory taskExecutorFactory;
+
+    @Value("${chunkSize:1000}")
+    private int chunkSize;
+
+    @Value("${remotePartition.timeout:3600000}")
+    private long remotePartitionTimeout;
+
+    @Bean(JOB_NAME)
+    public Job job() throws Exception {
+        return jobBuilderFactory.get(JOB_NAME)
+                .start(step(null, null))
+                .build();
+    }
+
+    @Bean(BEAN_PREFIX + "step")
+    @JobScope
+    public Step step(@Value("#{jobParameters[gridSize] ?: 4}") Integer gridSize,
+                     @Value("#{jobParameters[partitionMode] ?: 'local'}") String partitionMode) throws Exception {
+        if ("remote".equals(partitionMode)) {
+            return stepBuilderFactory.get(BEAN_PREFIX + "step")
+                    .partitioner(BEAN_PREFIX + "workerStep", partitioner())
+                    .partitionHandler(RemotePartitionConfiguration.partitionHandler(remotePartitionRequests, jobExplorer,
+                            BEAN_PREFIX + "workerStep", gridSize, remotePartitionTimeout))
+                    .build();
+        }
+
+        return stepBuilderFactory.get(BEAN_PREFIX + "step")
+                .partitioner(BEAN_PREFIX + "workerStep", partitioner())
+                .step(workerStep())
+                .gridSize(gridSize)
+                .taskExecutor(taskExecutor(null))
+                .build();
+    }
+
+    /**
+     * poolSize 를 지정하지 않으면 gridSize 만큼 요청하고, 실제 동시 실행 수는 ConnectionPoolGovernor 가 pool 크기에 맞춘다.
+     */
+    @Bean(BEAN_PREFIX + "taskExecutor")
+    @JobScope
+    public TaskExecutor taskExecutor(@Value("#{jobParameters[poolSize] ?: jobParameters[gridSize] ?: 4}") Integer poolSize) {
+        return taskExecutorFactory.create(BEAN_PREFIX, poolSize);
+    }
+
+    @Bean(BEAN_PREFIX + "partitioner")
+    public IdRangePartitioner partitioner() {
+        return new IdRangePartitioner(dataSource, "pay", "id");
+    }
+
+    @Bean(BEAN_PREFIX + "workerStep")
+    public Step workerStep() throws Exception {
+        return stepBuilderFactory.get(BEAN_PREFIX + "workerStep")
+                .<Pay, Pay>chunk(chunkSize)
+                .reader(reader(null, null))
+                .writer(writer())
+                .build();
+    }
+
+    @Bean(BEAN_PREFIX + "reader")
+    @StepScope
+    public JdbcPagingItemReader<Pay> reader(
+            @Value("#{stepExecutionContext[minId]}") Long minId,
+            @Value("#{stepExecutionContext[maxId]}") Long maxId) throws Exception {
+        Map<String, Object> params = new HashMap<>();
+        params.put("amount", 2000);
+        params.put("minId", minId);
+        params.put("maxId", maxId);
+
+        SqlPagingQueryProviderFactoryBean queryProvider = new SqlPagingQueryProviderFactoryBean();
+        queryProvider.setDataSource(dataSource);
+        queryProvider.setSelectClause("id, amount, tx_name, tx_date_time");
+        queryProvider.setFromClause("from pay");
+        queryProvider.setWhereClause("where amount >= :amount and id between :minId and :maxId");
+        queryProvider.setSortKey("id");
+
+        return new JdbcPagingItemReaderBuilder<Pay>()
+                .name(BEAN_PREFIX + "reader")
+                .pageSize(chunkSize)
+                .fetchSize(chunkSize)
+                .dataSource(dataSource)
+                .rowMapper(new PayJdbcMapper())
+                .queryProvider(queryProvider.getObject())
+                .parameterValues(params)
+                .build();
+    }
+
+    private ItemWriter<Pay> writer() {
+        return list -> {
+            for (Pay pay : list) {
+                log.info("Current Pay={}", pay);
+            }
+        };
+    }
+}
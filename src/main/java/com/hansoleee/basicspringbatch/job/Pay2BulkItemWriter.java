@@ -0,0 +1,214 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.hansoleee.basicspringbatch.entity.Pay;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Pay 를 pay2 로 복사할 때 row 마다 INSERT 하지 않고 chunk 를 한 번에 적재하는 Writer
+ *
+ * - MULTI_ROW_INSERT: INSERT ... VALUES (...),(...) 를 maxStatementBytes 크기로 나누어 실행 (모든 DB)
+ * - LOAD_DATA: chunk 를 CSV 로 만들어 LOAD DATA LOCAL INFILE 로 스트리밍 (MariaDB/MySQL, URL 에 allowLocalInfile=true 필요)
+ * - CSVREAD: chunk 를 임시 CSV 파일로 쓰고 INSERT ... SELECT FROM CSVREAD (H2, DB 서버가 같은 장비여야 함)
+ *
+ * 모두 chunk 트랜잭션의 Connection 을 그대로 사용하므로 rollback 시 함께 취소된다.
+ */
+@Slf4j
+public class Pay2BulkItemWriter implements ItemWriter<Pay> {
+
+    public enum Strategy {
+        MULTI_ROW_INSERT, LOAD_DATA, CSVREAD;
+
+        /**
+         * DataSource 의 DB 종류에 맞는 가장 빠른 적재 방식
+         */
+        public static Strategy detect(DataSource dataSource) {
+            try {
+                String productName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+                if ("MariaDB".equalsIgnoreCase(productName) || "MySQL".equalsIgnoreCase(productName)) {
+                    return LOAD_DATA;
+                }
+                if ("H2".equalsIgnoreCase(productName)) {
+                    return CSVREAD;
+                }
+            } catch (MetaDataAccessException e) {
+                log.warn(">>>>> DB 종류 확인 실패. MULTI_ROW_INSERT 사용", e);
+            }
+            return MULTI_ROW_INSERT;
+        }
+    }
+
+    private static final String INSERT_PREFIX = "INSERT INTO pay2(amount, tx_name, tx_date_time) VALUES ";
+    private static final String LOAD_DATA_SQL = "LOAD DATA LOCAL INFILE 'pay2.csv' INTO TABLE pay2 " +
+            "CHARACTER SET utf8mb4 FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY '\\\\' " +
+            "LINES TERMINATED BY '\\n' (amount, tx_name, tx_date_time)";
+    private static final String CSVREAD_SQL = "INSERT INTO pay2(amount, tx_name, tx_date_time) " +
+            "SELECT * FROM CSVREAD(?, 'amount,tx_name,tx_date_time', 'charset=UTF-8')";
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS");
+    private static final int MAX_PARAMETERS = 65535;
+    private static final int COLUMNS = 3;
+    private static final int FIXED_ROW_BYTES = 64; // "(?, ?, ?), " + amount + tx_date_time
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Strategy strategy;
+    private final int maxStatementBytes;
+
+    public Pay2BulkItemWriter(DataSource dataSource, Strategy strategy) {
+        this(dataSource, strategy, 1024 * 1024);
+    }
+
+    public Pay2BulkItemWriter(DataSource dataSource, Strategy strategy, int maxStatementBytes) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.strategy = strategy;
+        this.maxStatementBytes = maxStatementBytes;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    @Override
+    public void write(List<? extends Pay> items) throws Exception {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        switch (strategy) {
+            case LOAD_DATA:
+                loadData(items);
+                break;
+            case CSVREAD:
+                csvRead(items);
+                break;
+            default:
+                multiRowInsert(items);
+        }
+    }
+
+    private void multiRowInsert(List<? extends Pay> items) {
+        int from = 0;
+        while (from < items.size()) {
+            int to = from;
+            int bytes = INSERT_PREFIX.length();
+            while (to < items.size() && (to - from) * COLUMNS < MAX_PARAMETERS) {
+                bytes += rowBytes(items.get(to));
+                if (bytes > maxStatementBytes && to > from) {
+                    break;
+                }
+                to++;
+            }
+            insertRows(items.subList(from, to));
+            from = to;
+        }
+    }
+
+    private void insertRows(List<? extends Pay> rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows.size() * 11).append(INSERT_PREFIX);
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+        }
+
+        jdbcTemplate.update(sql.toString(), ps -> {
+            int index = 1;
+            for (Pay pay : rows) {
+                if (pay.getAmount() == null) {
+                    ps.setNull(index++, Types.BIGINT);
+                } else {
+                    ps.setLong(index++, pay.getAmount());
+                }
+                ps.setString(index++, pay.getTxName());
+                ps.setTimestamp(index++, pay.getTxDateTime() == null ? null : Timestamp.valueOf(pay.getTxDateTime()));
+            }
+        });
+    }
+
+    private void loadData(List<? extends Pay> items) {
+        byte[] csv = toCsv(items, true);
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                Statement driverStatement = statement.unwrap(Statement.class);
+                setLocalInfileInputStream(driverStatement, new ByteArrayInputStream(csv));
+                statement.execute(LOAD_DATA_SQL);
+            }
+            return null;
+        });
+    }
+
+    private void csvRead(List<? extends Pay> items) throws Exception {
+        Path file = Files.createTempFile("pay2-", ".csv");
+        try {
+            Files.write(file, toCsv(items, false));
+            jdbcTemplate.update(CSVREAD_SQL, file.toAbsolutePath().toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * MariaDB/MySQL Connector 의 setLocalInfileInputStream 은 표준 JDBC API 가 아니기 때문에 리플렉션으로 호출한다.
+     */
+    private static void setLocalInfileInputStream(Statement statement, InputStream inputStream) throws SQLException {
+        try {
+            Method method = statement.getClass().getMethod("setLocalInfileInputStream", InputStream.class);
+            method.invoke(statement, inputStream);
+        } catch (ReflectiveOperationException e) {
+            throw new SQLException("LOAD DATA LOCAL INFILE is not supported by " + statement.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * LOAD DATA: 문자열은 "..." 로 감싸고 \ 로 escape, NULL 은 \N
+     * CSVREAD: 문자열은 "..." 로 감싸고 " 는 "" 로 escape, NULL 은 빈 값
+     */
+    private static byte[] toCsv(List<? extends Pay> items, boolean loadData) {
+        String nullValue = loadData ? "\\N" : "";
+        StringBuilder csv = new StringBuilder(items.size() * 64);
+        for (Pay pay : items) {
+            csv.append(pay.getAmount() == null ? nullValue : pay.getAmount().toString()).append(',');
+            if (pay.getTxName() == null) {
+                csv.append(nullValue);
+            } else {
+                csv.append('"');
+                for (int i = 0; i < pay.getTxName().length(); i++) {
+                    char c = pay.getTxName().charAt(i);
+                    if (loadData && (c == '"' || c == '\\')) {
+                        csv.append('\\');
+                    } else if (!loadData && c == '"') {
+                        csv.append('"');
+                    }
+                    csv.append(c);
+                }
+                csv.append('"');
+            }
+            csv.append(',');
+            LocalDateTime txDateTime = pay.getTxDateTime();
+            csv.append(txDateTime == null ? nullValue : DATE_TIME_FORMATTER.format(txDateTime)).append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int rowBytes(Pay pay) {
+        return FIXED_ROW_BYTES + (pay.getTxName() == null ? 4 : pay.getTxName().length() * 4);
+    }
+}
@@ -0,0 +1,121 @@
+package com.hansoleee.basicspringbatch.job;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pay 여러 건을 컬럼별 배열로 담는 묶음 (PayColumnsItemReader 의 item 한 건)
+ *
+ * Pay 객체 / Long / LocalDateTime 을 row 마다 만들지 않고
+ * id, amount 는 long[], tx_date_time 은 epoch second(UTC 기준 벽시계 시간) long[], tx_name 은 사전(dictionary) 코드 int[] 로 보관한다.
+ * amount / tx_date_time 의 NULL 은 BitSet 으로, tx_name 의 NULL 은 코드 -1 로 표시한다.
+ * tx_date_time 은 DB 에서 epoch second 로 바꿔서 주고받으므로(EPOCH_SECOND_COLUMN / EPOCH_SECOND_PARAMETER) 나노초는 버린다.
+ * row 마다 남는 할당은 JDBC 드라이버가 tx_name 을 읽을 때 만드는 String 뿐이다. (사전에는 종류별로 하나만 남는다)
+ */
+public class PayColumns {
+
+    /**
+     * tx_date_time 을 epoch second(BIGINT)로 조회하는 식 (H2, MariaDB 공통)
+     */
+    public static final String EPOCH_SECOND_COLUMN = "TIMESTAMPDIFF(SECOND, TIMESTAMP '1970-01-01 00:00:00', tx_date_time)";
+
+    /**
+     * epoch second 파라미터를 tx_date_time 으로 바꾸는 식 (H2, MariaDB 공통, NULL 이면 NULL)
+     */
+    public static final String EPOCH_SECOND_PARAMETER = "TIMESTAMPADD(SECOND, ?, TIMESTAMP '1970-01-01 00:00:00')";
+
+    private static final int NULL_CODE = -1;
+
+    private final long[] id;
+    private final long[] amount;
+    private final long[] txDateTime;
+    private final int[] txNameCode;
+    private final BitSet nullAmount = new BitSet();
+    private final BitSet nullTxDateTime = new BitSet();
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<String, Integer> codes = new HashMap<>();
+    private int size;
+
+    public PayColumns(int capacity) {
+        this.id = new long[capacity];
+        this.amount = new long[capacity];
+        this.txDateTime = new long[capacity];
+        this.txNameCode = new int[capacity];
+    }
+
+    /**
+     * id, amount, tx_name, EPOCH_SECOND_COLUMN 순서로 조회한 현재 row 를 추가한다.
+     */
+    public void add(ResultSet rs) throws SQLException {
+        int row = size++;
+        id[row] = rs.getLong(1);
+
+        amount[row] = rs.getLong(2);
+        if (rs.wasNull()) {
+            nullAmount.set(row);
+        }
+
+        txNameCode[row] = code(rs.getString(3));
+
+        txDateTime[row] = rs.getLong(4);
+        if (rs.wasNull()) {
+            nullTxDateTime.set(row);
+        }
+    }
+
+    private int code(String txName) {
+        if (txName == null) {
+            return NULL_CODE;
+        }
+        return codes.computeIfAbsent(txName, name -> {
+            dictionary.add(name);
+            return dictionary.size() - 1;
+        });
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == id.length;
+    }
+
+    public long getId(int row) {
+        return id[row];
+    }
+
+    public long getLastId() {
+        return id[size - 1];
+    }
+
+    public boolean isAmountNull(int row) {
+        return nullAmount.get(row);
+    }
+
+    public long getAmount(int row) {
+        return amount[row];
+    }
+
+    public String getTxName(int row) {
+        int code = txNameCode[row];
+        return code == NULL_CODE ? null : dictionary.get(code);
+    }
+
+    public boolean isTxDateTimeNull(int row) {
+        return nullTxDateTime.get(row);
+    }
+
+    public long getTxDateTimeEpochSecond(int row) {
+        return txDateTime[row];
+    }
+
+    public int getDictionarySize() {
+        return dictionary.size();
+    }
+}
@@ -0,0 +1,102 @@
+package com.hansoleee.basicspringbatch.job;
+
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * pay 를 커서로 읽어서 blockSize 건씩 PayColumns 에 바로 채우는 Reader (Pay 객체를 만들지 않는다)
+ *
+ * read() 한 번에 PayColumns 한 묶음을 반환하므로 Step 의 chunk(n) 은 n * blockSize 건마다 commit 한다.
+ * 마지막으로 읽은 id 를 ExecutionContext 에 저장하고 재시작 시 그 다음 id 부터 읽는다. (WHERE id > ?)
+ * setIdRange 로 (from, to] 범위만 읽을 수 있다. (PayWatermark)
+ *
+ * ex) --job.name=jdbcBatchItemWriterJob chunkLayout=columnar blockSize=1000
+ */
+public class PayColumnsItemReader extends ItemStreamSupport implements ItemStreamReader<PayColumns> {
+
+    private static final String LAST_ID = "last.id";
+    // tx_date_time 은 DB 에서 epoch second 로 바꿔서 읽는다. (row 마다 Timestamp / LocalDateTime 을 만들지 않는다)
+    private static final String SQL = "SELECT id, amount, tx_name, " + PayColumns.EPOCH_SECOND_COLUMN
+            + " FROM pay WHERE id > ? AND id <= ? ORDER BY id";
+
+    private final DataSource dataSource;
+    private final int blockSize;
+
+    private Connection connection;
+    private PreparedStatement preparedStatement;
+    private ResultSet resultSet;
+    private Long lastId;
+    private long startAfterId = Long.MIN_VALUE;
+    private long maxId = Long.MAX_VALUE;
+
+    public PayColumnsItemReader(DataSource dataSource, int blockSize) {
+        this.dataSource = dataSource;
+        this.blockSize = blockSize;
+        setName(ClassUtils.getShortName(PayColumnsItemReader.class));
+    }
+
+    public void setIdRange(long startAfterId, long maxId) {
+        this.startAfterId = startAfterId;
+        this.maxId = maxId;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        lastId = executionContext.containsKey(getExecutionContextKey(LAST_ID))
+                ? executionContext.getLong(getExecutionContextKey(LAST_ID))
+                : null;
+        try {
+            // chunk 트랜잭션과 별도의 Connection 으로 커서를 유지한다. (JdbcCursorItemReader 와 동일)
+            connection = dataSource.getConnection();
+            preparedStatement = connection.prepareStatement(SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            preparedStatement.setFetchSize(blockSize);
+            preparedStatement.setLong(1, lastId == null ? startAfterId : lastId);
+            preparedStatement.setLong(2, maxId);
+            resultSet = preparedStatement.executeQuery();
+        } catch (SQLException e) {
+            close();
+            throw new ItemStreamException("Failed to open pay cursor", e);
+        }
+    }
+
+    @Override
+    public PayColumns read() throws SQLException {
+        PayColumns columns = new PayColumns(blockSize);
+        while (!columns.isFull() && resultSet.next()) {
+            columns.add(resultSet);
+        }
+        if (columns.size() == 0) {
+            return null;
+        }
+
+        lastId = columns.getLastId();
+        return columns;
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        if (lastId != null) {
+            executionContext.putLong(getExecutionContextKey(LAST_ID), lastId);
+        }
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        JdbcUtils.closeResultSet(resultSet);
+        JdbcUtils.closeStatement(preparedStatement);
+        JdbcUtils.closeConnection(connection);
+        resultSet = null;
+        preparedStatement = null;
+        connection = null;
+    }
+}
@@ -0,0 +1,54 @@
+package com.hansoleee.basicspringbatch.job;
+
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * PayColumns 의 배열 값을 그대로 JDBC batch 에 바인딩해서 pay2 에 INSERT 하는 Writer
+ * tx_date_time 은 epoch second 를 long 으로 바인딩하고 DB 에서 TIMESTAMP 로 바꾼다. (row 마다 객체를 만들지 않는다)
+ * PayColumns 한 묶음을 batchUpdate 한 번으로 실행한다.
+ */
+public class PayColumnsItemWriter implements ItemWriter<PayColumns> {
+
+    private static final String SQL = "INSERT INTO pay2(amount, tx_name, tx_date_time) values (?, ?, " + PayColumns.EPOCH_SECOND_PARAMETER + ")";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PayColumnsItemWriter(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void write(List<? extends PayColumns> items) {
+        for (PayColumns columns : items) {
+            jdbcTemplate.batchUpdate(SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int row) throws SQLException {
+                    if (columns.isAmountNull(row)) {
+                        ps.setNull(1, Types.BIGINT);
+                    } else {
+                        ps.setLong(1, columns.getAmount(row));
+                    }
+                    ps.setString(2, columns.getTxName(row));
+                    if (columns.isTxDateTimeNull(row)) {
+                        ps.setNull(3, Types.BIGINT);
+                    } else {
+                        ps.setLong(3, columns.getTxDateTimeEpochSecond(row));
+                    }
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return columns.size();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.hansoleee.basicspringbatch.entity.Pay;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.support.ItemStreamSupport;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * incremental=true 로 실행하면 pay 를 전부 읽지 않고 이전 실행 이후에 추가된 id 범위 (from, to] 만 처리하도록 범위를 정하는 Listener
+ *
+ * Job 시작 시 from = 같은 Job 의 이전 incremental 실행이 끝낸 id, to = 지금의 MAX(id) 로 정해서 Job ExecutionContext 에 저장한다.
+ * - 이전 실행이 COMPLETED(또는 실행 중)이면 그 실행의 to 부터 이어받는다.
+ * - 이전 실행이 실패 / 중지되었으면 그 실행이 commit 한 id(Step ExecutionContext 의 pay.watermark.committed)부터 이어받는다.
+ *   pay2 에는 원본 id 가 없어서 다시 쓰면 중복되므로 commit 된 범위는 다시 읽지 않는다.
+ *   이어받은 뒤에는 그 실패한 JobInstance 를 재시작할 수 없다. (범위가 겹치면 beforeJob 에서 실패)
+ * 실패한 Job 을 (다음 JobInstance 가 이어받기 전에) 재시작하면 저장해 둔 같은 범위로 Reader 의 재시작 위치부터 이어서 처리한다.
+ *
+ * Step 에서는 #{jobExecutionContext['pay.watermark.from']} / ['pay.watermark.to'] 로 읽어 Reader 조건(id > ? AND id <= ?)에 사용하고,
+ * trackCommitted 로 commit 된 id 를 기록한다.
+ * 별도 watermark 테이블 없이 Job Repository(BATCH_JOB_EXECUTION_CONTEXT / BATCH_STEP_EXECUTION_CONTEXT)에 저장한다.
+ *
+ * id(IDENTITY) 순서로 commit 된다고 가정한다. 작은 id 의 INSERT 가 늦게 commit 되면 그 row 는 다음 실행에서도 읽지 않는다.
+ * ex) --job.name=jdbcBatchItemWriterJob incremental=true runDate=2021-09-02
+ */
+@Slf4j
+public class PayWatermark implements JobExecutionListener {
+
+    public static final String FROM = "pay.watermark.from";
+    public static final String TO = "pay.watermark.to";
+    public static final String COMMITTED = "pay.watermark.committed";
+    private static final int INSTANCE_PAGE_SIZE = 100;
+
+    private final JobExplorer jobExplorer;
+    private final JdbcTemplate jdbcTemplate;
+
+    public PayWatermark(JobExplorer jobExplorer, DataSource dataSource) {
+        this.jobExplorer = jobExplorer;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * incremental Step 에 CommittedIdTracker 를 등록한다. (Step 실행마다 새로 만든다)
+     */
+    public static <I, O> SimpleStepBuilder<I, O> trackCommitted(SimpleStepBuilder<I, O> builder, long from) {
+        CommittedIdTracker tracker = new CommittedIdTracker(from);
+        builder.stream(tracker);
+        builder.listener((ItemReadListener<Object>) tracker);
+        builder.listener((ChunkListener) tracker);
+        return builder;
+    }
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        ExecutionContext executionContext = jobExecution.getExecutionContext();
+        if (executionContext.containsKey(TO)) {
+            checkNotTakenOver(jobExecution.getJobInstance(), executionContext.getLong(TO));
+            log.info(">>>>> pay watermark restart: ({}, {}]", executionContext.getLong(FROM), executionContext.getLong(TO));
+            return;
+        }
+        if (!"true".equals(jobExecution.getJobParameters().getString("incremental"))) {
+            return;
+        }
+
+        long from = lastWatermark(jobExecution.getJobInstance());
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM pay", Long.class);
+        long to = max == null ? from : Math.max(from, max);
+        executionContext.putLong(FROM, from);
+        executionContext.putLong(TO, to);
+        log.info(">>>>> pay watermark: ({}, {}]", from, to);
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+    }
+
+    /**
+     * 최근 JobInstance 부터 찾아서 마지막 incremental 실행이 끝낸 id 를 반환한다. 없으면 0 (처음부터)
+     */
+    private long lastWatermark(JobInstance current) {
+        for (int start = 0; ; start += INSTANCE_PAGE_SIZE) {
+            List<JobInstance> instances = jobExplorer.getJobInstances(current.getJobName(), start, INSTANCE_PAGE_SIZE);
+            for (JobInstance instance : instances) {
+                if (instance.getId().equals(current.getId())) {
+                    continue;
+                }
+                // 최근 실행부터 조회된다.
+                for (JobExecution execution : jobExplorer.getJobExecutions(instance)) {
+                    ExecutionContext executionContext = execution.getExecutionContext();
+                    if (!executionContext.containsKey(TO)) {
+                        continue;
+                    }
+                    if (execution.getStatus() == BatchStatus.COMPLETED || execution.getStatus().isRunning()) {
+                        return executionContext.getLong(TO);
+                    }
+                    return committedWatermark(execution);
+                }
+            }
+            if (instances.size() < INSTANCE_PAGE_SIZE) {
+                return 0L;
+            }
+        }
+    }
+
+    private static long committedWatermark(JobExecution execution) {
+        long committed = execution.getExecutionContext().getLong(FROM);
+        for (StepExecution stepExecution : execution.getStepExecutions()) {
+            committed = Math.max(committed, stepExecution.getExecutionContext().getLong(COMMITTED, committed));
+        }
+        log.info(">>>>> pay watermark: take over {} execution {} at id {}", execution.getStatus(), execution.getId(), committed);
+        return committed;
+    }
+
+    /**
+     * 이후의 JobInstance 가 이미 이 범위의 일부를 이어받았으면 재시작하지 않는다. (pay2 중복 방지)
+     */
+    private void checkNotTakenOver(JobInstance current, long to) {
+        for (int start = 0; ; start += INSTANCE_PAGE_SIZE) {
+            List<JobInstance> instances = jobExplorer.getJobInstances(current.getJobName(), start, INSTANCE_PAGE_SIZE);
+            for (JobInstance instance : instances) {
+                if (instance.getId() <= current.getId()) {
+                    return;
+                }
+                for (JobExecution execution : jobExplorer.getJobExecutions(instance)) {
+                    ExecutionContext executionContext = execution.getExecutionContext();
+                    if (executionContext.containsKey(FROM) && executionContext.getLong(FROM) < to) {
+                        throw new IllegalStateException("pay watermark range up to " + to + " was already taken over by job instance "
+                                + instance.getId() + "; start a new instance instead of restarting");
+                    }
+                }
+            }
+            if (instances.size() < INSTANCE_PAGE_SIZE) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * chunk 가 commit 될 때 그 chunk 까지 빠짐없이 commit 된 가장 큰 pay id 를 Step ExecutionContext(pay.watermark.committed)에 저장한다.
+     *
+     * 멀티 쓰레드 Step 에서는 읽었지만 아직 commit 되지 않은 id 중 가장 작은 id 바로 앞까지만 commit 된 것으로 본다.
+     * (TaskletStep 이 update 부터 commit 까지를 Step 단위로 직렬화하므로 update 시점의 값이 그대로 commit 된다)
+     * PayColumns 는 묶음의 마지막 id 를 읽은 id 로 기록한다. (단일 쓰레드에서만 사용)
+     */
+    static class CommittedIdTracker extends ItemStreamSupport implements ItemReadListener<Object>, ChunkListener {
+
+        private final long from;
+        private final TreeSet<Long> inFlight = new TreeSet<>();
+        private final ThreadLocal<List<Long>> reading = ThreadLocal.withInitial(ArrayList::new);
+        private final ThreadLocal<List<Long>> committing = ThreadLocal.withInitial(ArrayList::new);
+        private long committedMax;
+        private long watermark;
+
+        CommittedIdTracker(long from) {
+            this.from = from;
+        }
+
+        @Override
+        public synchronized void open(ExecutionContext executionContext) {
+            watermark = executionContext.getLong(COMMITTED, from);
+            committedMax = watermark;
+            inFlight.clear();
+        }
+
+        @Override
+        public synchronized void update(ExecutionContext executionContext) {
+            List<Long> ids = reading.get();
+            ids.forEach(inFlight::remove);
+            for (long id : ids) {
+                committedMax = Math.max(committedMax, id);
+            }
+            committing.get().addAll(ids);
+            ids.clear();
+
+            watermark = inFlight.isEmpty() ? committedMax : Math.min(committedMax, inFlight.first() - 1);
+            executionContext.putLong(COMMITTED, watermark);
+        }
+
+        @Override
+        public synchronized void afterRead(Object item) {
+            long id;
+            if (item instanceof Pay) {
+                id = ((Pay) item).getId();
+            } else if (item instanceof PayColumns) {
+                id = ((PayColumns) item).getLastId();
+            } else {
+                return;
+            }
+            inFlight.add(id);
+            reading.get().add(id);
+        }
+
+        @Override
+        public void beforeRead() {
+        }
+
+        @Override
+        public void onReadError(Exception ex) {
+        }
+
+        @Override
+        public void beforeChunk(ChunkContext context) {
+            committing.get().clear();
+        }
+
+        @Override
+        public void afterChunk(ChunkContext context) {
+            committing.get().clear();
+        }
+
+        /**
+         * update() 이후 commit 이 실패했다면 그 chunk 의 id 를 다시 commit 되지 않은 것으로 돌린다.
+         */
+        @Override
+        public synchronized void afterChunkError(ChunkContext context) {
+            inFlight.addAll(committing.get());
+            committing.get().clear();
+        }
+    }
+}
@@ -8,18 +8,27 @@ import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.database.JpaPagingItemReader;
 import org.springframework.batch.item.database.builder.JpaPagingItemReaderBuilder;
 import org.springframework.batch.item.support.CompositeItemProcessor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.integration.annotation.Poller;
+import org.springframework.integration.annotation.ServiceActivator;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.persistence.EntityManagerFactory;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Future;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -32,20 +41,52 @@ public class ProcessorCompositeJobConfiguration {
     private final JobBuilderFactory jobBuilderFactory;
     private final StepBuilderFactory stepBuilderFactory;
     private final EntityManagerFactory emf;
+    private final PlatformTransactionManager transactionManager;
 
     @Value("${chunkSize:1000}")
     private int chunckSize;
 
+    /**
+     * 0보다 크면 compositeProcessor를 asyncPoolSize 개의 쓰레드에서 비동기로 실행한다.
+     */
+    @Value("${asyncPoolSize:0}")
+    private int asyncPoolSize;
+
+    @Value("${remoteChunking.timeout:60000}")
+    private long remoteChunkingTimeout;
+
     @Bean(JOB_NAME)
     public Job job() {
         return jobBuilderFactory.get(JOB_NAME)
-                .start(step())
+                .start(step(null, null))
                 .build();
     }
 
+    /**
+     * chunking=remote 이면 Teacher 를 읽어서 chunk 단위로 Worker 에 보내고, compositeProcessor 와 writer 는 Worker 가 실행한다.
+     */
     @Bean(BEAN_PREFIX + "step")
     @JobScope
-    public Step step() {
+    public Step step(@Value("#{jobParameters[chunking] ?: 'local'}") String chunking,
+                     @Value("#{jobParameters[maxOutstandingChunks] ?: 4}") Integer maxOutstandingChunks) {
+        if ("remote".equals(chunking)) {
+            SimpleStepBuilder<Teacher, Teacher> builder = stepBuilderFactory.get(BEAN_PREFIX + "step")
+                    .<Teacher, Teacher>chunk(chunckSize);
+
+            return RemoteChunkingStep.manager(builder, requests(), replies(), maxOutstandingChunks, remoteChunkingTimeout)
+                    .reader(reader())
+                    .build();
+        }
+
+        if (asyncPoolSize > 0) {
+            return stepBuilderFactory.get(BEAN_PREFIX + "step")
+                    .<Teacher, Future<String>>chunk(chunckSize)
+                    .reader(reader())
+                    .processor(AsyncItemStage.processor(compositeProcessor(), taskExecutor()))
+                    .writer(AsyncItemStage.writer(writer()))
+                    .build();
+        }
+
         return stepBuilderFactory.get(BEAN_PREFIX + "step")
                 .<Teacher, String>chunk(chunckSize)
                 .reader(reader())
@@ -64,6 +105,29 @@ public class ProcessorCompositeJobConfiguration {
                 .build();
     }
 
+    @Bean(BEAN_PREFIX + "taskExecutor")
+    @JobScope
+    public ThreadPoolTaskExecutor taskExecutor() {
+        return AsyncItemStage.boundedExecutor(BEAN_PREFIX, asyncPoolSize);
+    }
+
+    @Bean(BEAN_PREFIX + "requests")
+    public QueueChannel requests() {
+        return new QueueChannel();
+    }
+
+    @Bean(BEAN_PREFIX + "replies")
+    public QueueChannel replies() {
+        return new QueueChannel();
+    }
+
+    @Bean(BEAN_PREFIX + "worker")
+    @ConditionalOnProperty(name = "remoteChunking.worker", havingValue = "true")
+    @ServiceActivator(inputChannel = BEAN_PREFIX + "requests", poller = @Poller(fixedDelay = "${remoteChunking.pollInterval:100}"))
+    public MessageHandler worker() {
+        return RemoteChunkingStep.worker(compositeProcessor(), writer(), replies(), transactionManager);
+    }
+
     @Bean(BEAN_PREFIX + "compositeProcessor")
     public CompositeItemProcessor<Teacher, String> compositeProcessor() {
         List<ItemProcessor<?, ?>> delegates = new ArrayList<>();
@@ -15,8 +15,10 @@ import org.springframework.batch.item.database.builder.JpaPagingItemReaderBuilde
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.Future;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -33,6 +35,12 @@ public class ProcessorConvertJobConfiguration {
     @Value("${chunkSize:1000}")
     private int chunkSize;
 
+    /**
+     * 0보다 크면 processor를 asyncPoolSize 개의 쓰레드에서 비동기로 실행한다.
+     */
+    @Value("${asyncPoolSize:0}")
+    private int asyncPoolSize;
+
     @Bean(JOB_NAME)
     public Job job() {
         return jobBuilderFactory.get(JOB_NAME)
@@ -44,6 +52,15 @@ public class ProcessorConvertJobConfiguration {
     @Bean(BEAN_PREFIX + "step")
     @JobScope
     public Step step() {
+        if (asyncPoolSize > 0) {
+            return stepBuilderFactory.get(BEAN_PREFIX + "step")
+                    .<Teacher, Future<String>>chunk(chunkSize)
+                    .reader(reader())
+                    .processor(AsyncItemStage.processor(processor(), taskExecutor()))
+                    .writer(AsyncItemStage.writer(writer()))
+                    .build();
+        }
+
         return stepBuilderFactory.get(BEAN_PREFIX + "step")
                 .<Teacher, String>chunk(chunkSize)
                 .reader(reader())
@@ -62,6 +79,12 @@ public class ProcessorConvertJobConfiguration {
                 .build();
     }
 
+    @Bean(BEAN_PREFIX + "taskExecutor")
+    @JobScope
+    public ThreadPoolTaskExecutor taskExecutor() {
+        return AsyncItemStage.boundedExecutor(BEAN_PREFIX, asyncPoolSize);
+    }
+
     @Bean
     public ItemProcessor<Teacher, String> processor() {
         return Teacher::getName;
@@ -0,0 +1,159 @@
+package com.hansoleee.basicspringbatch.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
+import org.springframework.batch.core.step.item.SimpleChunkProcessor;
+import org.springframework.batch.integration.chunk.ChunkHandler;
+import org.springframework.batch.integration.chunk.ChunkMessageChannelItemWriter;
+import org.springframework.batch.integration.chunk.ChunkProcessorChunkHandler;
+import org.springframework.batch.integration.chunk.ChunkRequest;
+import org.springframework.batch.integration.chunk.ChunkResponse;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.core.MessagingTemplate;
+import org.springframework.integration.handler.ServiceActivatingHandler;
+import org.springframework.integration.transaction.TransactionInterceptorBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * chunk Step 을 Remote Chunking 으로 실행하기 위한 설정 모음
+ *
+ * Manager 는 기존 Reader 로 읽은 chunk 를 requests 채널로 보내고, Worker 가 ItemProcessor/ItemWriter 를 실행한 결과
+ * (ChunkResponse)를 replies 채널로 받는다. 응답을 받지 못한 chunk 가 maxOutstandingChunks 개를 넘으면
+ * Manager 는 더 읽지 않고 응답을 기다린다.
+ *
+ * Worker 가 실제로 쓴 건수는 Step 의 ExecutionContext 에 남긴다. (Step 의 writeCount 는 Worker 로 보낸 건수)
+ * - remoteChunking.writeCount / remoteChunking.filterCount / remoteChunking.skipCount
+ *
+ * 채널은 각 JobConfiguration 의 QueueChannel(메모리)을 사용하므로 한 JVM 에서 확인할 때는 --remoteChunking.worker=true 를 같이 준다.
+ * 여러 JVM 으로 나누려면 채널 빈만 JMS/AMQP 어댑터와 연결된 채널로 바꾸면 된다. (item 은 Serializable 이어야 한다)
+ */
+public final class RemoteChunkingStep {
+
+    public static final String WRITE_COUNT = "remoteChunking.writeCount";
+    public static final String FILTER_COUNT = "remoteChunking.filterCount";
+    public static final String SKIP_COUNT = "remoteChunking.skipCount";
+
+    private static final long RECEIVE_TIMEOUT = 1000;
+
+    private RemoteChunkingStep() {
+    }
+
+    /**
+     * builder 의 Writer 를 chunk 를 requests 채널로 보내는 Writer 로 바꾼다.
+     * ChunkMessageChannelItemWriter 는 thread-safe 하지 않으므로 multi-thread Step 과 같이 쓰지 않는다.
+     */
+    public static <I> SimpleStepBuilder<I, I> manager(SimpleStepBuilder<I, I> builder, MessageChannel requests, QueueChannel replies,
+                                                      int maxOutstandingChunks, long timeoutMillis) {
+        MessagingTemplate messagingTemplate = new MessagingTemplate();
+        messagingTemplate.setDefaultChannel(requests);
+        messagingTemplate.setReceiveTimeout(RECEIVE_TIMEOUT);
+
+        ChunkMessageChannelItemWriter<I> writer = new ChunkMessageChannelItemWriter<>();
+        writer.setMessagingOperations(messagingTemplate);
+        writer.setReplyChannel(replies);
+        writer.setThrottleLimit(maxOutstandingChunks);
+        writer.setMaxWaitTimeouts((int) Math.max(1, timeoutMillis / RECEIVE_TIMEOUT));
+
+        // Writer 의 afterStep(남은 응답 대기)이 먼저 실행되도록 Writer 보다 먼저 등록한다. (afterStep 은 역순으로 호출된다)
+        builder.listener(new ChunkReplyCounter(replies));
+        return builder.writer(writer);
+    }
+
+    /**
+     * requests 채널의 chunk 를 processor/writer 로 처리하고 ChunkResponse 를 replies 채널로 보내는 Worker
+     * chunk 하나를 하나의 트랜잭션으로 처리한다.
+     * ChunkProcessorChunkHandler 는 processor/writer 예외를 실패 응답으로 바꾸고 던지지 않으므로
+     * 실패 응답이면 트랜잭션을 rollback-only 로 표시해서 중간까지 쓴 chunk 가 commit 되지 않게 한다.
+     */
+    public static <I, O> ServiceActivatingHandler worker(ItemProcessor<I, O> processor, ItemWriter<O> writer,
+                                                         MessageChannel replies, PlatformTransactionManager transactionManager) {
+        ChunkProcessorChunkHandler<I> chunkHandler = new ChunkProcessorChunkHandler<>();
+        chunkHandler.setChunkProcessor(new SimpleChunkProcessor<>(processor, writer));
+
+        ServiceActivatingHandler handler = new ServiceActivatingHandler(new RollbackOnFailureChunkHandler<>(chunkHandler), "handleChunk");
+        handler.setOutputChannel(replies);
+        handler.setAdviceChain(Collections.singletonList(new TransactionInterceptorBuilder()
+                .transactionManager(transactionManager)
+                .build()));
+        return handler;
+    }
+
+    /**
+     * 실패 응답이면 현재 트랜잭션을 rollback-only 로 표시한다. (worker 의 트랜잭션 advice 안에서 호출된다)
+     */
+    public static class RollbackOnFailureChunkHandler<T> implements ChunkHandler<T> {
+
+        private final ChunkHandler<T> delegate;
+
+        public RollbackOnFailureChunkHandler(ChunkHandler<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ChunkResponse handleChunk(ChunkRequest<T> chunkRequest) throws Exception {
+            ChunkResponse response = delegate.handleChunk(chunkRequest);
+            if (!response.isSuccessful()) {
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            }
+            return response;
+        }
+    }
+
+    @Slf4j
+    static class ChunkReplyCounter implements ChannelInterceptor, StepExecutionListener {
+
+        private final QueueChannel replies;
+        private final AtomicLong writeCount = new AtomicLong();
+        private final AtomicLong filterCount = new AtomicLong();
+        private final AtomicLong skipCount = new AtomicLong();
+
+        ChunkReplyCounter(QueueChannel replies) {
+            this.replies = replies;
+        }
+
+        @Override
+        public void beforeStep(StepExecution stepExecution) {
+            writeCount.set(0);
+            filterCount.set(0);
+            skipCount.set(0);
+            replies.addInterceptor(this);
+        }
+
+        @Override
+        public Message<?> postReceive(Message<?> message, MessageChannel channel) {
+            if (message != null && message.getPayload() instanceof ChunkResponse) {
+                StepContribution contribution = ((ChunkResponse) message.getPayload()).getStepContribution();
+                if (contribution != null) {
+                    writeCount.addAndGet(contribution.getWriteCount());
+                    filterCount.addAndGet(contribution.getFilterCount());
+                    skipCount.addAndGet(contribution.getProcessSkipCount() + contribution.getWriteSkipCount());
+                }
+            }
+            return message;
+        }
+
+        @Override
+        public ExitStatus afterStep(StepExecution stepExecution) {
+            replies.removeInterceptor(this);
+            stepExecution.getExecutionContext().putLong(WRITE_COUNT, writeCount.get());
+            stepExecution.getExecutionContext().putLong(FILTER_COUNT, filterCount.get());
+            stepExecution.getExecutionContext().putLong(SKIP_COUNT, skipCount.get());
+            log.info(">>>>> {} remote chunking: sent={}, written={}, filtered={}, skipped={}", stepExecution.getStepName(),
+                    stepExecution.getWriteCount(), writeCount.get(), filterCount.get(), skipCount.get());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.hansoleee.basicspringbatch.job;
+
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.step.StepLocator;
+import org.springframework.batch.integration.partition.BeanFactoryStepLocator;
+import org.springframework.batch.integration.partition.MessageChannelPartitionHandler;
+import org.springframework.batch.integration.partition.StepExecutionRequestHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.integration.annotation.Poller;
+import org.springframework.integration.annotation.ServiceActivator;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.core.MessagingTemplate;
+import org.springframework.integration.handler.ServiceActivatingHandler;
+import org.springframework.integration.jdbc.store.JdbcChannelMessageStore;
+import org.springframework.integration.jdbc.store.channel.ChannelMessageStoreQueryProvider;
+import org.springframework.integration.jdbc.store.channel.H2ChannelMessageStoreQueryProvider;
+import org.springframework.integration.jdbc.store.channel.MySqlChannelMessageStoreQueryProvider;
+import org.springframework.integration.store.MessageGroupQueue;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.messaging.MessageHandler;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * 파티션 Step을 여러 JVM(Worker)에 나누어 실행하기 위한 설정 (Remote Partitioning)
+ *
+ * Manager는 파티션마다 StepExecutionRequest(jobExecutionId, stepExecutionId, Worker Step 이름)를
+ * REQUEST_CHANNEL 로 보내고, Worker가 실행한 결과는 공유하는 Job Repository(DB)를 조회해서 확인한다.
+ *
+ * 기본 채널은 Job Repository 와 같은 DB의 INT_CHANNEL_MESSAGE 테이블을 큐로 사용하므로 별도의 브로커가 필요 없다.
+ * (embedded DB 는 spring.integration.jdbc.initialize-schema 로 자동 생성, 그 외에는
+ *  spring-integration-jdbc 의 org/springframework/integration/jdbc/schema-*.sql 로 미리 생성)
+ * JMS/AMQP 등을 사용하려면 REQUEST_CHANNEL 빈만 해당 어댑터와 연결된 채널로 바꾸면 된다.
+ *
+ * Worker 실행 예) --remotePartition.worker=true
+ * Manager 실행 예) --job.name=partitionJdbcPagingItemReaderJob partitionMode=remote gridSize=8
+ * (한 장비에서 확인할 때는 Manager 에도 --remotePartition.worker=true 를 주면 자기 자신이 Worker 가 된다)
+ */
+@Configuration
+public class RemotePartitionConfiguration {
+
+    public static final String REQUEST_CHANNEL = "remotePartitionRequests";
+
+    @Bean
+    public JdbcChannelMessageStore remotePartitionMessageStore(DataSource dataSource) {
+        JdbcChannelMessageStore messageStore = new JdbcChannelMessageStore(dataSource);
+        messageStore.setChannelMessageStoreQueryProvider(queryProvider(dataSource));
+        return messageStore;
+    }
+
+    @Bean(REQUEST_CHANNEL)
+    public QueueChannel remotePartitionRequests(JdbcChannelMessageStore remotePartitionMessageStore) {
+        return new QueueChannel(new MessageGroupQueue(remotePartitionMessageStore, REQUEST_CHANNEL));
+    }
+
+    /**
+     * Manager Step 마다 새로 만들어 사용한다. (PartitionStepBuilder.partitionHandler)
+     */
+    public static MessageChannelPartitionHandler partitionHandler(QueueChannel requestChannel, JobExplorer jobExplorer,
+                                                                  String workerStepName, int gridSize, long timeout) throws Exception {
+        MessagingTemplate messagingTemplate = new MessagingTemplate();
+        messagingTemplate.setDefaultChannel(requestChannel);
+
+        MessageChannelPartitionHandler partitionHandler = new MessageChannelPartitionHandler();
+        partitionHandler.setMessagingOperations(messagingTemplate);
+        partitionHandler.setStepName(workerStepName);
+        partitionHandler.setGridSize(gridSize);
+        partitionHandler.setJobExplorer(jobExplorer);
+        partitionHandler.setPollInterval(1000);
+        partitionHandler.setTimeout(timeout);
+        partitionHandler.afterPropertiesSet();
+        return partitionHandler;
+    }
+
+    /**
+     * 큐에서 StepExecutionRequest 를 꺼내 같은 이름의 Step 빈을 실행하는 Worker
+     * 메시지는 꺼내는 순간 큐에서 삭제되므로 Worker 가 죽으면 해당 파티션은 Manager 의 timeout 후 FAILED 가 되고
+     * 재시작 시 다시 전송된다.
+     */
+    @Configuration
+    @ConditionalOnProperty(name = "remotePartition.worker", havingValue = "true")
+    static class WorkerConfiguration {
+
+        @Bean
+        public StepExecutionRequestHandler remotePartitionStepExecutionRequestHandler(JobExplorer jobExplorer, StepLocator remotePartitionStepLocator) {
+            StepExecutionRequestHandler handler = new StepExecutionRequestHandler();
+            handler.setJobExplorer(jobExplorer);
+            handler.setStepLocator(remotePartitionStepLocator);
+            return handler;
+        }
+
+        @Bean
+        public BeanFactoryStepLocator remotePartitionStepLocator() {
+            return new BeanFactoryStepLocator();
+        }
+
+        @Bean
+        @ServiceActivator(inputChannel = REQUEST_CHANNEL,
+                poller = @Poller(fixedDelay = "${remotePartition.pollInterval:100}", maxMessagesPerPoll = "1"))
+        public MessageHandler remotePartitionWorker(StepExecutionRequestHandler remotePartitionStepExecutionRequestHandler) {
+            ServiceActivatingHandler handler = new ServiceActivatingHandler(remotePartitionStepExecutionRequestHandler, "handle");
+            // 결과는 Manager 가 Job Repository 에서 확인하므로 반환된 StepExecution 은 버린다.
+            handler.setOutputChannelName("nullChannel");
+            return handler;
+        }
+    }
+
+    private static ChannelMessageStoreQueryProvider queryProvider(DataSource dataSource) {
+        String productName;
+        try {
+            productName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Failed to detect database type for the remote partition channel", e);
+        }
+        if ("MariaDB".equalsIgnoreCase(productName) || "MySQL".equalsIgnoreCase(productName)) {
+            return new MySqlChannelMessageStoreQueryProvider();
+        }
+        if ("H2".equalsIgnoreCase(productName)) {
+            return new H2ChannelMessageStoreQueryProvider();
+        }
+        throw new IllegalStateException("Remote partition channel is not supported on " + productName);
+    }
+}
@@ -0,0 +1,55 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.hansoleee.basicspringbatch.entity.SalesSum;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+
+import java.util.Objects;
+
+/**
+ * order_date 순으로 정렬된 sales 를 한 번만 읽으면서 날짜별 합계(SalesSum)를 만드는 Reader
+ *
+ * delegate 는 sales 한 건을 SalesSum(order_date, amount)로 돌려주는 forward-only cursor 이고
+ * 반드시 order_date 로 정렬되어 있어야 한다.
+ * 날짜가 바뀌는 순간 지금까지 더한 SalesSum 을 반환하기 때문에 메모리에는 한 날짜의 합계만 유지한다.
+ *
+ * 재시작 시에는 read.count(반환한 SalesSum 수)만큼 다시 집계하며 건너뛴다.
+ */
+public class SalesSumAggregatingItemReader extends AbstractItemCountingItemStreamItemReader<SalesSum> {
+
+    private final ItemStreamReader<SalesSum> delegate;
+
+    private SalesSum next;
+
+    public SalesSumAggregatingItemReader(ItemStreamReader<SalesSum> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        delegate.open(new ExecutionContext());
+        next = delegate.read();
+    }
+
+    @Override
+    protected SalesSum doRead() throws Exception {
+        if (next == null) {
+            return null;
+        }
+
+        SalesSum current = next;
+        long amountSum = current.getAmountSum();
+        while ((next = delegate.read()) != null && Objects.equals(next.getOrderDate(), current.getOrderDate())) {
+            amountSum += next.getAmountSum();
+        }
+        current.setAmountSum(amountSum);
+        return current;
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        next = null;
+        delegate.close();
+    }
+}
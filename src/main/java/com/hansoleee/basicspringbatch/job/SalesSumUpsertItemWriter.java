@@ -0,0 +1,167 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.hansoleee.basicspringbatch.entity.SalesSum;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * order_date 가 같은 sales_sum 이 있으면 amount_sum 을 덮어쓰고, 없으면 INSERT 하는 Writer
+ * 같은 날짜를 다시 실행해도 row 가 중복되지 않으므로 재실행 전에 delete 하지 않아도 된다.
+ *
+ * - MARIADB: INSERT ... ON DUPLICATE KEY UPDATE (order_date unique key 필요, SalesSum 의 uk_sales_sum_order_date)
+ * - H2: MERGE INTO ... KEY(order_date)
+ *
+ * 두 방식 모두 update count 로 INSERT / UPDATE 를 구분할 수 없어서(H2 는 항상 1, MariaDB 는 batch 시 -2)
+ * chunk 마다 이미 있는 order_date 를 한 번 조회해서 센다.
+ * commit 된 chunk 의 건수만 더해서 Step 이 끝날 때 ExecutionContext 의 upsert.insertCount / upsert.updateCount 에 저장한다.
+ *
+ * ddl-auto 를 사용하지 않는 DB 에는 unique key 를 미리 만들어야 한다.
+ * alter table sales_sum add constraint uk_sales_sum_order_date unique (order_date);
+ */
+@Slf4j
+public class SalesSumUpsertItemWriter implements ItemWriter<SalesSum>, StepExecutionListener {
+
+    public static final String INSERT_COUNT = "upsert.insertCount";
+    public static final String UPDATE_COUNT = "upsert.updateCount";
+
+    public enum Dialect {
+        MARIADB("INSERT INTO sales_sum(order_date, amount_sum) VALUES (?, ?) ON DUPLICATE KEY UPDATE amount_sum = VALUES(amount_sum)"),
+        H2("MERGE INTO sales_sum(order_date, amount_sum) KEY(order_date) VALUES (?, ?)");
+
+        private final String sql;
+
+        Dialect(String sql) {
+            this.sql = sql;
+        }
+
+        public static Dialect detect(DataSource dataSource) {
+            String productName;
+            try {
+                productName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            } catch (MetaDataAccessException e) {
+                throw new IllegalStateException("Failed to detect database for sales_sum upsert", e);
+            }
+            if ("MariaDB".equalsIgnoreCase(productName) || "MySQL".equalsIgnoreCase(productName)) {
+                return MARIADB;
+            }
+            if ("H2".equalsIgnoreCase(productName)) {
+                return H2;
+            }
+            throw new IllegalStateException("sales_sum upsert is not supported on " + productName);
+        }
+    }
+
+    private static final String EXISTING_SQL = "SELECT order_date FROM sales_sum WHERE order_date IN (:orderDates)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final Dialect dialect;
+
+    private final AtomicLong insertCount = new AtomicLong();
+    private final AtomicLong updateCount = new AtomicLong();
+
+    public SalesSumUpsertItemWriter(DataSource dataSource) {
+        this(dataSource, Dialect.detect(dataSource));
+    }
+
+    public SalesSumUpsertItemWriter(DataSource dataSource, Dialect dialect) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.dialect = dialect;
+    }
+
+    @Override
+    public void write(List<? extends SalesSum> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        Set<LocalDate> existing = namedParameterJdbcTemplate.queryForList(EXISTING_SQL,
+                        Map.of("orderDates", items.stream().map(SalesSum::getOrderDate).collect(Collectors.toSet())), Date.class)
+                .stream()
+                .map(Date::toLocalDate)
+                .collect(Collectors.toCollection(HashSet::new));
+        long inserts = 0;
+        long updates = 0;
+        for (SalesSum item : items) {
+            // 같은 chunk 에 같은 날짜가 두 번 있으면 두 번째는 UPDATE 가 된다.
+            if (existing.add(item.getOrderDate())) {
+                inserts++;
+            } else {
+                updates++;
+            }
+        }
+
+        jdbcTemplate.batchUpdate(dialect.sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                SalesSum item = items.get(i);
+                ps.setObject(1, item.getOrderDate());
+                ps.setLong(2, item.getAmountSum());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return items.size();
+            }
+        });
+        count(inserts, updates);
+    }
+
+    /**
+     * 트랜잭션 안이면 commit 된 뒤에 더한다. (rollback 후 재시도한 chunk 를 두 번 세지 않도록)
+     */
+    private void count(long inserts, long updates) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insertCount.addAndGet(inserts);
+            updateCount.addAndGet(updates);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                insertCount.addAndGet(inserts);
+                updateCount.addAndGet(updates);
+            }
+        });
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        ExecutionContext executionContext = stepExecution.getExecutionContext();
+        insertCount.set(executionContext.getLong(INSERT_COUNT, 0L));
+        updateCount.set(executionContext.getLong(UPDATE_COUNT, 0L));
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        stepExecution.getExecutionContext().putLong(INSERT_COUNT, insertCount.get());
+        stepExecution.getExecutionContext().putLong(UPDATE_COUNT, updateCount.get());
+        log.info(">>>>> sales_sum upsert: inserted={}, updated={}", insertCount.get(), updateCount.get());
+        return null;
+    }
+}
@@ -0,0 +1,93 @@
+package com.hansoleee.basicspringbatch.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JobRepository.updateExecutionContext(StepExecution) 를 마지막으로 저장한 내용과 같으면 건너뛰는 Interceptor
+ *
+ * chunk 마다 Reader 상태가 바뀌지 않는 Step(saveState=false, Tasklet 반복 등)에서 BATCH_STEP_EXECUTION_CONTEXT UPDATE 를 줄인다.
+ * 저장한 내용은 chunk 트랜잭션이 commit 된 뒤에만 기억하므로 rollback 된 UPDATE 를 저장된 것으로 보지 않는다.
+ * ExecutionContext 의 값은 Spring Batch 의 ItemStream 들처럼 매번 새 값으로 put 한다고 가정한다.
+ * (Map 값은 복사해서 비교하지만 그 외의 값 객체를 직접 바꾸면 감지하지 못한다)
+ */
+@Slf4j
+public class SkipUnchangedExecutionContextInterceptor implements MethodInterceptor {
+
+    private final Map<Long, Map<String, Object>> persisted = new ConcurrentHashMap<>();
+    private final LongAdder skipped = new LongAdder();
+
+    public JobRepository proxy(JobRepository jobRepository) {
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setTarget(jobRepository);
+        proxyFactory.addInterface(JobRepository.class);
+        proxyFactory.addAdvice(this);
+        return (JobRepository) proxyFactory.getProxy();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object[] arguments = invocation.getArguments();
+        if (arguments.length != 1 || !(arguments[0] instanceof StepExecution)) {
+            return invocation.proceed();
+        }
+
+        StepExecution stepExecution = (StepExecution) arguments[0];
+        String methodName = invocation.getMethod().getName();
+        if ("updateExecutionContext".equals(methodName) && stepExecution.getId() != null) {
+            return updateExecutionContext(invocation, stepExecution);
+        }
+        if ("update".equals(methodName) && stepExecution.getEndTime() != null) {
+            persisted.remove(stepExecution.getId());
+        }
+        return invocation.proceed();
+    }
+
+    private Object updateExecutionContext(MethodInvocation invocation, StepExecution stepExecution) throws Throwable {
+        Long id = stepExecution.getId();
+        Map<String, Object> current = snapshot(stepExecution.getExecutionContext());
+        if (current.equals(persisted.get(id))) {
+            skipped.increment();
+            log.debug(">>>>> skip unchanged ExecutionContext: {}", stepExecution.getStepName());
+            return null;
+        }
+
+        Object result = invocation.proceed();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    persisted.put(id, current);
+                }
+            });
+        } else {
+            persisted.put(id, current);
+        }
+        return result;
+    }
+
+    private static Map<String, Object> snapshot(ExecutionContext executionContext) {
+        Map<String, Object> snapshot = new HashMap<>();
+        for (Map.Entry<String, Object> entry : executionContext.entrySet()) {
+            Object value = entry.getValue();
+            snapshot.put(entry.getKey(), value instanceof Map ? new HashMap<>((Map<?, ?>) value) : value);
+        }
+        return snapshot;
+    }
+
+    public long getSkippedCount() {
+        return skipped.sum();
+    }
+}
@@ -0,0 +1,43 @@
+package com.hansoleee.basicspringbatch.job;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+/**
+ * Hibernate StatelessSession 으로 INSERT 하는 Writer
+ *
+ * JpaItemWriter 는 chunk 의 모든 엔티티를 영속성 컨텍스트에 올린 뒤 flush(dirty checking) 하지만
+ * StatelessSession 은 1차 캐시 없이 insert 를 바로 실행하므로 chunkSize 와 관계없이 heap 사용량이 일정하다.
+ *
+ * chunk 트랜잭션의 Connection 을 그대로 사용하므로 rollback 시 함께 취소된다.
+ * (JpaTransactionManager 가 JDBC Connection 을 DataSource 에 바인딩해 둔다)
+ */
+public class StatelessSessionItemWriter<T> implements ItemWriter<T> {
+
+    private final SessionFactory sessionFactory;
+    private final DataSource dataSource;
+
+    public StatelessSessionItemWriter(EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void write(List<? extends T> items) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (StatelessSession session = sessionFactory.openStatelessSession(connection)) {
+            for (T item : items) {
+                session.insert(item);
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+}
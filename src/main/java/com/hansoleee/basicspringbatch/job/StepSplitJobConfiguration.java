@@ -0,0 +1,109 @@
+package com.hansoleee.basicspringbatch.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+
+/**
+ * stepNextJob 처럼 next 로 하나씩 실행하지 않고, 서로 의존하지 않는 branch 들을 split 으로 동시에 실행한 뒤 joinStep 에서 합치는 Job
+ *
+ * branch a: splitStep01
+ * branch b: splitStep02 -> splitStep03 (branch 안에서는 순서대로)
+ * branch c: splitStep04
+ * branches 파라미터로 일부 branch 만 실행할 수 있다. (ParallelFlows.BranchDecider)
+ * 실행 예) --job.name=stepSplitJob
+ * 실행 예) --job.name=stepSplitJob branches=a,c
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class StepSplitJobConfiguration {
+
+    public static final String JOB_NAME = "stepSplitJob";
+    public static final String BEAN_PREFIX = JOB_NAME + "_";
+    public static final String[] BRANCHES = {"a", "b", "c"};
+
+    private final JobBuilderFactory jobBuilderFactory;
+    private final StepBuilderFactory stepBuilderFactory;
+    private final BatchTaskExecutorFactory taskExecutorFactory;
+
+    @Bean(JOB_NAME)
+    public Job job() {
+        return jobBuilderFactory.get(JOB_NAME)
+                .start(splitStartStep())
+                .split(taskExecutor())
+                .add(ParallelFlows.branch("a", splitStep01()),
+                        ParallelFlows.branch("b", splitStep02(), splitStep03()),
+                        ParallelFlows.branch("c", splitStep04()))
+                .next(joinStep())
+                .end()
+                .build();
+    }
+
+    /**
+     * branch 안의 Step 은 Governor 를 거치지 않고 Step 트랜잭션으로 connection 을 1개 쓰므로 branch 마다 1개씩 자리를 받는다.
+     */
+    @Bean(BEAN_PREFIX + "taskExecutor")
+    public TaskExecutor taskExecutor() {
+        return taskExecutorFactory.create(JOB_NAME + "-", BRANCHES.length);
+    }
+
+    @Bean
+    public Step splitStartStep() {
+        return logStep("splitStartStep");
+    }
+
+    @Bean
+    public Step splitStep01() {
+        return logStep("splitStep01");
+    }
+
+    @Bean
+    public Step splitStep02() {
+        return logStep("splitStep02");
+    }
+
+    @Bean
+    public Step splitStep03() {
+        return logStep("splitStep03");
+    }
+
+    @Bean
+    public Step splitStep04() {
+        return logStep("splitStep04");
+    }
+
+    /**
+     * 모든 branch 가 끝난 뒤에 실행된다. branch 별 실행 시간을 출력한다.
+     */
+    @Bean
+    public Step joinStep() {
+        return stepBuilderFactory.get("joinStep")
+                .tasklet((contribution, chunkContext) -> {
+                    ExecutionContext jobContext = chunkContext.getStepContext().getStepExecution().getJobExecution().getExecutionContext();
+                    for (String branch : BRANCHES) {
+                        String key = ParallelFlows.timingKey(branch);
+                        log.info(">>>>> branch {}: {}", branch, jobContext.containsKey(key) ? jobContext.getLong(key) + " ms" : "skipped");
+                    }
+                    return RepeatStatus.FINISHED;
+                })
+                .build();
+    }
+
+    private Step logStep(String name) {
+        return stepBuilderFactory.get(name)
+                .tasklet((contribution, chunkContext) -> {
+                    log.info(">>>>> This is {} ({})", name, Thread.currentThread().getName());
+                    return RepeatStatus.FINISHED;
+                })
+                .build();
+    }
+}
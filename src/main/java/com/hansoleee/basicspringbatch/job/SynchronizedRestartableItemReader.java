@@ -0,0 +1,141 @@
+package com.hansoleee.basicspringbatch.job;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.support.ItemStreamSupport;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * 멀티 쓰레드 Step에서 Reader를 공유하기 위한 동기화 Reader
+ *
+ * read()는 synchronized로 한 쓰레드씩 실행하고, 읽은 순서대로 item에 번호를 붙인다.
+ * chunk가 commit 될 때(update) 그 chunk의 번호들을 commit 된 것으로 표시하고 아래 두 값을 ExecutionContext에 저장한다.
+ * - committed.count: 0 ~ committed.count - 1 번 item은 모두 commit 됨
+ * - committed.after: committed.count 이후에 먼저 commit 된 item 번호 (쓰레드마다 commit 순서가 다르기 때문)
+ *
+ * 재시작 시 delegate를 처음부터 열어 committed.count 개를 건너뛰고, committed.after에 있는 item도 건너뛴다.
+ * 따라서 delegate는 항상 같은 순서로 읽어야 하며(ORDER BY) delegate 자체의 상태는 저장하지 않는다.
+ *
+ * chunk 단위로 commit 여부를 추적하기 때문에 faultTolerant() Step(skip/retry)에서는 사용하지 않는다.
+ */
+public class SynchronizedRestartableItemReader<T> extends ItemStreamSupport implements ItemStreamReader<T>, ChunkListener {
+
+    private static final String COMMITTED_COUNT = "committed.count";
+    private static final String COMMITTED_AFTER = "committed.after";
+
+    private final ItemStreamReader<T> delegate;
+
+    private final ThreadLocal<List<Long>> uncommitted = ThreadLocal.withInitial(ArrayList::new);
+    private final ThreadLocal<List<Long>> committing = ThreadLocal.withInitial(ArrayList::new);
+    private final TreeSet<Long> committedAfter = new TreeSet<>();
+    private long committedCount;
+    private long sequence;
+
+    public SynchronizedRestartableItemReader(ItemStreamReader<T> delegate, String name) {
+        this.delegate = delegate;
+        setName(name);
+    }
+
+    @Override
+    public synchronized void open(ExecutionContext executionContext) throws ItemStreamException {
+        committedCount = executionContext.getLong(getExecutionContextKey(COMMITTED_COUNT), 0L);
+        committedAfter.clear();
+        String after = executionContext.getString(getExecutionContextKey(COMMITTED_AFTER), "");
+        for (String number : StringUtils.commaDelimitedListToStringArray(after)) {
+            committedAfter.add(Long.parseLong(number));
+        }
+
+        delegate.open(new ExecutionContext());
+        try {
+            for (sequence = 0; sequence < committedCount; sequence++) {
+                if (delegate.read() == null) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            throw new ItemStreamException("Failed to skip committed items on restart", e);
+        }
+    }
+
+    @Override
+    public synchronized T read() throws Exception {
+        T item;
+        long current;
+        do {
+            item = delegate.read();
+            if (item == null) {
+                return null;
+            }
+            current = sequence++;
+        } while (committedAfter.contains(current));
+
+        uncommitted.get().add(current);
+        return item;
+    }
+
+    /**
+     * chunk 트랜잭션 안에서 commit 직전에 호출된다. (TaskletStep이 Step 단위로 직렬화)
+     */
+    @Override
+    public synchronized void update(ExecutionContext executionContext) throws ItemStreamException {
+        List<Long> items = uncommitted.get();
+        committedAfter.addAll(items);
+        committing.get().addAll(items);
+        items.clear();
+
+        while (committedAfter.remove(committedCount)) {
+            committedCount++;
+        }
+
+        executionContext.putLong(getExecutionContextKey(COMMITTED_COUNT), committedCount);
+        executionContext.putString(getExecutionContextKey(COMMITTED_AFTER), committedAfter.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",")));
+    }
+
+    @Override
+    public synchronized void close() throws ItemStreamException {
+        delegate.close();
+        committedAfter.clear();
+        committedCount = 0;
+        sequence = 0;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        uncommitted.get().clear();
+        committing.get().clear();
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        committing.get().clear();
+    }
+
+    /**
+     * update() 이후 commit이 실패했다면 이 chunk의 item들을 다시 commit 되지 않은 상태로 돌린다.
+     */
+    @Override
+    public synchronized void afterChunkError(ChunkContext context) {
+        List<Long> items = committing.get();
+        if (!items.isEmpty()) {
+            long first = Collections.min(items);
+            for (long number = first; number < committedCount; number++) {
+                committedAfter.add(number);
+            }
+            committedCount = Math.min(committedCount, first);
+            items.forEach(committedAfter::remove);
+            items.clear();
+        }
+        uncommitted.get().clear();
+    }
+}
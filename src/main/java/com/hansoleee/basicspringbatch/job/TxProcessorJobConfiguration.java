@@ -11,8 +11,6 @@ import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemWriter;
-import org.springframework.batch.item.database.JpaPagingItemReader;
-import org.springframework.batch.item.database.builder.JpaPagingItemReaderBuilder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -31,9 +29,13 @@ public class TxProcessorJobConfiguration {
     private final StepBuilderFactory stepBuilderFactory;
     private final EntityManagerFactory emf;
 
-    @Value("${chunkSize:1000}")
     private int chunkSize;
 
+    @Value("${chunkSize:1000}")
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
     @Bean(JOB_NAME)
     public Job job() {
         return jobBuilderFactory.get(JOB_NAME)
@@ -52,14 +54,20 @@ public class TxProcessorJobConfiguration {
                 .build();
     }
 
+    /**
+     * Teacher id를 먼저 페이징한 뒤 studentList를 fetch join 하여 chunk당 2번의 쿼리로 읽는다.
+     * (studentList Lazy Loading으로 인한 N+1 방지)
+     */
     @Bean(BEAN_PREFIX + "reader")
-    public JpaPagingItemReader<Teacher> reader() {
-        return new JpaPagingItemReaderBuilder<Teacher>()
-                .name(BEAN_PREFIX + "reader")
-                .entityManagerFactory(emf)
-                .pageSize(chunkSize)
-                .queryString("SELECT t FROM Teacher t")
-                .build();
+    public JpaKeysetItemReader<Teacher> reader() {
+        JpaKeysetItemReader<Teacher> reader = new JpaKeysetItemReader<>();
+        reader.setName(BEAN_PREFIX + "reader");
+        reader.setEntityManagerFactory(emf);
+        reader.setPageSize(chunkSize);
+        reader.setQueryString("SELECT t.id FROM Teacher t WHERE t.id > :lastId ORDER BY t.id");
+        reader.setFetchQueryString("SELECT DISTINCT t FROM Teacher t LEFT JOIN FETCH t.studentList WHERE t.id IN :ids ORDER BY t.id");
+        reader.setIdExtractor(Teacher::getId);
+        return reader;
     }
 
     public ItemProcessor<Teacher, ClassInformation> processor() {
@@ -0,0 +1,66 @@
+package com.hansoleee.basicspringbatch.job;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.repeat.RepeatContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveChunkSizePolicyTest {
+
+    @Test
+    void 목표시간보다_빨리_끝나면_다음_chunk는_최대_2배까지_커진다() {
+        //given
+        AdaptiveChunkSizePolicy policy = new AdaptiveChunkSizePolicy(10, 10, 100, 60_000);
+        List<Integer> pageSizes = new ArrayList<>();
+        policy.addChunkSizeListener(pageSizes::add);
+
+        //when
+        for (int chunk = 0; chunk < 4; chunk++) {
+            completeChunk(policy);
+        }
+
+        //then
+        assertThat(pageSizes).containsExactly(10, 20, 40, 80, 100);
+        assertThat(policy.getChunkSize()).isEqualTo(100);
+    }
+
+    @Test
+    void chunk가_실패하면_절반으로_줄어든다() {
+        //given
+        AdaptiveChunkSizePolicy policy = new AdaptiveChunkSizePolicy(100, 10, 1000, 60_000);
+
+        //when
+        policy.afterChunkError(null);
+
+        //then
+        assertThat(policy.getChunkSize()).isEqualTo(50);
+    }
+
+    @Test
+    void 현재_chunk_크기만큼_읽으면_chunk가_완료된다() {
+        //given
+        AdaptiveChunkSizePolicy policy = new AdaptiveChunkSizePolicy(10, 10, 100, 60_000);
+        RepeatContext context = policy.start(null);
+
+        //when
+        for (int i = 0; i < 9; i++) {
+            policy.update(context);
+        }
+        boolean beforeLast = policy.isComplete(context);
+        policy.update(context);
+
+        //then
+        assertThat(beforeLast).isFalse();
+        assertThat(policy.isComplete(context)).isTrue();
+    }
+
+    private void completeChunk(AdaptiveChunkSizePolicy policy) {
+        policy.beforeChunk(null);
+        policy.beforeWrite(Collections.nCopies(policy.getChunkSize(), "item"));
+        policy.afterChunk(null);
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
 import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.database.JdbcPagingItemReader;
 import org.springframework.batch.test.MetaDataInstanceFactory;
 import org.springframework.batch.test.StepScopeTestExecutionListener;
@@ -52,6 +53,8 @@ class BatchJdbcUnitTestConfigurationTest {
     @Autowired
     private JdbcPagingItemReader<SalesSum> reader;
     @Autowired
+    private SalesSumAggregatingItemReader streamReader;
+    @Autowired
     private DataSource dataSource;
 
     private JdbcOperations jdbcTemplate;
@@ -61,6 +64,8 @@ class BatchJdbcUnitTestConfigurationTest {
     public StepExecution getStepExecutionV2() {
         JobParameters jobParameters = new JobParametersBuilder()
                 .addString("orderDate", this.orderDate.format(FORMATTER))
+                .addString("startDate", this.orderDate.format(FORMATTER))
+                .addString("endDate", this.orderDate.plusDays(1).format(FORMATTER))
                 .toJobParameters();
 
         return MetaDataInstanceFactory.createStepExecution(jobParameters);
@@ -92,8 +97,36 @@ class BatchJdbcUnitTestConfigurationTest {
         Assertions.assertThat(reader.read()).isEqualTo(null);
     }
 
+    @Test
+    void 기간내_Sales가_한번의_조회로_날짜별_SalesSum이_된다() throws Exception {
+        //given
+        LocalDate nextDate = this.orderDate.plusDays(1);
+        saveSales(nextDate, 100, "1");
+        saveSales(this.orderDate, 1000, "2");
+        saveSales(this.orderDate.plusDays(2), 999, "3");
+        saveSales(this.orderDate, 500, "4");
+
+        //when
+        streamReader.open(new ExecutionContext());
+        SalesSum first = streamReader.read();
+        SalesSum second = streamReader.read();
+        SalesSum end = streamReader.read();
+        streamReader.close();
+
+        //then
+        Assertions.assertThat(first.getOrderDate()).isEqualTo(this.orderDate);
+        Assertions.assertThat(first.getAmountSum()).isEqualTo(1500L);
+        Assertions.assertThat(second.getOrderDate()).isEqualTo(nextDate);
+        Assertions.assertThat(second.getAmountSum()).isEqualTo(100L);
+        Assertions.assertThat(end).isNull();
+    }
+
     private void saveSales(long amount, String orderNo) {
-        jdbcTemplate.update("insert into `sales` (order_date, amount, order_no) values (?, ?, ?)", this.orderDate, amount, orderNo);
+        saveSales(this.orderDate, amount, orderNo);
+    }
+
+    private void saveSales(LocalDate orderDate, long amount, String orderNo) {
+        jdbcTemplate.update("insert into `sales` (order_date, amount, order_no) values (?, ?, ?)", orderDate, amount, orderNo);
     }
 
     // (7)
@@ -0,0 +1,79 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchTaskExecutorFactoryTest {
+
+    @Test
+    void 동시에_실행되는_작업은_connection_pool_크기_1개를_뺀_만큼으로_제한된다() throws Exception {
+        //given
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(3);
+        BatchTaskExecutorFactory factory = new BatchTaskExecutorFactory(dataSource, BatchTaskExecutorFactory.Mode.AUTO, new SimpleMeterRegistry());
+        BatchTaskExecutorFactory.BoundedTaskExecutor taskExecutor = factory.create("test-", 8);
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch twoStarted = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(8);
+
+        //when
+        // 자리가 없으면 execute 가 기다리므로 별도 쓰레드에서 넘긴다.
+        Thread submitter = new Thread(() -> {
+            for (int i = 0; i < 8; i++) {
+                taskExecutor.execute(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    twoStarted.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    done.countDown();
+                });
+            }
+        });
+        submitter.start();
+        assertThat(twoStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        int availablePermits = taskExecutor.getAvailablePermits();
+        release.countDown();
+
+        //then
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(availablePermits).isZero();
+        assertThat(maxRunning.get()).isEqualTo(2);
+        submitter.join();
+        taskExecutor.destroy();
+        dataSource.close();
+    }
+
+    @Test
+    void mode_는_기본_Locale_과_관계없이_대소문자를_무시하고_읽는다() {
+        //given
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+
+        //when & then
+        try {
+            assertThat(BatchTaskExecutorFactory.Mode.of("virtual")).isEqualTo(BatchTaskExecutorFactory.Mode.VIRTUAL);
+            assertThat(BatchTaskExecutorFactory.Mode.of(" Platform ")).isEqualTo(BatchTaskExecutorFactory.Mode.PLATFORM);
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+        assertThatThrownBy(() -> BatchTaskExecutorFactory.Mode.of("virtaul"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("auto|virtual|platform");
+    }
+}
@@ -0,0 +1,65 @@
+package com.hansoleee.basicspringbatch.job;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.repository.ExecutionContextSerializer;
+import org.springframework.batch.core.repository.dao.Jackson2ExecutionContextStringSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactExecutionContextSerializerTest {
+
+    private final CompactExecutionContextSerializer serializer = new CompactExecutionContextSerializer();
+
+    @Test
+    void Reader_상태가_같은_타입으로_복원되고_JSON보다_작다() throws Exception {
+        //given
+        Map<String, Object> startAfter = new LinkedHashMap<>();
+        startAfter.put("id", 123_456L);
+
+        Map<String, Object> context = new HashMap<>();
+        context.put("batch.taskletType", "org.springframework.batch.core.step.item.ChunkOrientedTasklet");
+        context.put("jdbcPagingItemReader.read.count", 12_000);
+        context.put("jdbcPagingItemReader.start.after", startAfter);
+        context.put("jpaKeysetItemReader.last.id", -1L);
+        context.put("ratio", 0.5);
+        context.put("done", true);
+        context.put("lastUpdated", new Date(1_630_000_000_000L));
+
+        //when
+        byte[] compact = serialize(serializer, context);
+        Map<String, Object> restored = serializer.deserialize(new ByteArrayInputStream(compact));
+
+        //then
+        assertThat(restored).isEqualTo(context);
+        assertThat(restored.get("jdbcPagingItemReader.read.count")).isInstanceOf(Integer.class);
+        assertThat(compact.length).isLessThan(serialize(new Jackson2ExecutionContextStringSerializer(), context).length);
+    }
+
+    @Test
+    void 기존에_저장된_JSON도_읽을_수_있다() throws Exception {
+        //given
+        Map<String, Object> context = new HashMap<>();
+        context.put("jdbcPagingItemReader.read.count", 10);
+        context.put("jpaKeysetItemReader.last.id", 10L);
+        byte[] json = serialize(new Jackson2ExecutionContextStringSerializer(), context);
+
+        //when
+        Map<String, Object> restored = serializer.deserialize(new ByteArrayInputStream(json));
+
+        //then
+        assertThat(restored).isEqualTo(context);
+    }
+
+    private byte[] serialize(ExecutionContextSerializer serializer, Map<String, Object> context) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.serialize(context, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,81 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionPoolGovernorTest {
+
+    @Test
+    void 여러_TaskExecutor_가_동시에_실행해도_connection_pool_크기를_넘지_않는다() throws Exception {
+        //given
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(3);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BatchTaskExecutorFactory factory = new BatchTaskExecutorFactory(dataSource, BatchTaskExecutorFactory.Mode.PLATFORM, meterRegistry);
+        TaskExecutor first = factory.create("first-", 4);
+        TaskExecutor second = factory.create("second-", 4);
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(8);
+
+        //when
+        Thread other = new Thread(() -> submit(second, 4, running, maxRunning, done));
+        other.start();
+        submit(first, 4, running, maxRunning, done);
+        other.join();
+
+        //then
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("batch.governor.wait").tag("executor", "first-").timer().count()).isEqualTo(4);
+        dataSource.close();
+    }
+
+    @Test
+    void connection_을_2개씩_쓰는_작업은_pool_에_맞춰_하나씩_실행된다() throws Exception {
+        //given
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(3);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BatchTaskExecutorFactory factory = new BatchTaskExecutorFactory(dataSource, BatchTaskExecutorFactory.Mode.AUTO, meterRegistry);
+        TaskExecutor taskExecutor = factory.create("partition-", 8, 2);
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(4);
+
+        //when
+        submit(taskExecutor, 4, running, maxRunning, done);
+
+        //then
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("batch.governor.capacity").gauge().value()).isEqualTo(2);
+        dataSource.close();
+    }
+
+    private static void submit(TaskExecutor taskExecutor, int count, AtomicInteger running, AtomicInteger maxRunning,
+                               CountDownLatch done) {
+        for (int i = 0; i < count; i++) {
+            taskExecutor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.hansoleee.basicspringbatch.TestBatchConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {CustomItemWriterJobConfiguration.class, BatchTaskExecutorConfiguration.class,
+        BatchMetricsConfiguration.class, TestBatchConfig.class})
+@TestPropertySource(properties = {
+        "remoteChunking.worker=true",
+        "remoteChunking.pollInterval=10"
+})
+class CustomItemWriterJobConfigurationTest {
+
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from pay");
+    }
+
+    @Test
+    void remote_chunking이면_Worker가_처리한_건수가_응답으로_돌아온다() throws Exception {
+        //given
+        for (long id = 1; id <= 25; id++) {
+            jdbcTemplate.update("insert into pay (id, amount, tx_name, tx_date_time) values (?, ?, ?, ?)",
+                    id, 1000, "trade" + id, "2021-09-01 00:00:00");
+        }
+
+        //when
+        JobExecution jobExecution = jobLauncherTestUtils.launchJob(new JobParametersBuilder()
+                .addString("chunking", "remote")
+                .addLong("maxOutstandingChunks", 1L)
+                .toJobParameters());
+
+        //then
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        StepExecution stepExecution = jobExecution.getStepExecutions().iterator().next();
+        assertThat(stepExecution.getReadCount()).isEqualTo(25);
+        assertThat(stepExecution.getExecutionContext().getLong(RemoteChunkingStep.WRITE_COUNT)).isEqualTo(25L);
+    }
+}
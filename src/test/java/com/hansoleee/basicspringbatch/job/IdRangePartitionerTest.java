@@ -0,0 +1,63 @@
+package com.hansoleee.basicspringbatch.job;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdRangePartitionerTest {
+
+    private EmbeddedDatabase dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        this.dataSource = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table pay (id bigint not null primary key, amount bigint, tx_name varchar(255), tx_date_time timestamp)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    void id_구간이_gridSize_만큼_나누어진다() {
+        //given
+        for (long id = 1; id <= 10; id++) {
+            jdbcTemplate.update("insert into pay (id, amount) values (?, ?)", id, 1000);
+        }
+        IdRangePartitioner partitioner = new IdRangePartitioner(dataSource, "pay", "id");
+
+        //when
+        Map<String, ExecutionContext> partitions = partitioner.partition(3);
+
+        //then
+        assertThat(partitions).hasSize(3);
+        assertThat(partitions.get("partition0").getLong(IdRangePartitioner.MIN_ID)).isEqualTo(1L);
+        assertThat(partitions.get("partition0").getLong(IdRangePartitioner.MAX_ID)).isEqualTo(4L);
+        assertThat(partitions.get("partition1").getLong(IdRangePartitioner.MIN_ID)).isEqualTo(5L);
+        assertThat(partitions.get("partition1").getLong(IdRangePartitioner.MAX_ID)).isEqualTo(8L);
+        assertThat(partitions.get("partition2").getLong(IdRangePartitioner.MIN_ID)).isEqualTo(9L);
+        assertThat(partitions.get("partition2").getLong(IdRangePartitioner.MAX_ID)).isEqualTo(10L);
+    }
+
+    @Test
+    void 테이블이_비어있으면_파티션이_없다() {
+        IdRangePartitioner partitioner = new IdRangePartitioner(dataSource, "pay", "id");
+
+        assertThat(partitioner.partition(4)).isEmpty();
+    }
+}
@@ -0,0 +1,153 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.hansoleee.basicspringbatch.TestBatchConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {ProcessorNullJobConfiguration.class, JobRepositoryConfiguration.class, TestBatchConfig.class})
+@TestPropertySource(properties = {
+        "batch.repository.in-memory=true",
+        "chunkSize=2"
+})
+class InMemoryJobRepositoryInterceptorTest {
+
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from teacher");
+    }
+
+    @Test
+    void preventRestart_Job은_끝날때_한번에_저장되고_chunk마다_UPDATE하지_않는다() throws Exception {
+        //given
+        for (long id = 1; id <= 6; id++) {
+            jdbcTemplate.update("insert into teacher (teacher_id, name) values (?, ?)", id, "teacher" + id);
+        }
+
+        //when
+        JobExecution jobExecution = jobLauncherTestUtils.launchJob(new JobParametersBuilder()
+                .addLong("time", System.currentTimeMillis())
+                .toJobParameters());
+
+        //then
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        Map<String, Object> stepRow = jdbcTemplate.queryForMap(
+                "select s.status, s.read_count, s.filter_count, s.commit_count, s.version from batch_step_execution s where s.job_execution_id = ?",
+                jobExecution.getId());
+        assertThat(stepRow.get("STATUS")).isEqualTo("COMPLETED");
+        assertThat(((Number) stepRow.get("READ_COUNT")).intValue()).isEqualTo(6);
+        assertThat(((Number) stepRow.get("FILTER_COUNT")).intValue()).isEqualTo(3);
+        assertThat(((Number) stepRow.get("COMMIT_COUNT")).intValue()).isEqualTo(4);
+        assertThat(((Number) stepRow.get("VERSION")).intValue()).isZero();
+        assertThat(jdbcTemplate.queryForObject("select status from batch_job_execution where job_execution_id = ?",
+                String.class, jobExecution.getId())).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    void DB_저장_중에_실패하면_BATCH_JOB_EXECUTION_도_남지_않는다() throws Exception {
+        //given
+        JobRepositoryConfiguration.StoreJobRepositoryFactoryBean factory = new JobRepositoryConfiguration.StoreJobRepositoryFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setTransactionManager(transactionManager);
+        factory.afterPropertiesSet();
+        JobRepository storeRepository = failOnAdd(factory.getStoreRepository());
+        JobRepository jobRepository = new InMemoryJobRepositoryInterceptor(factory.getObject(), storeRepository,
+                transactionManager, () -> Set.of("failingSaveJob")).proxy();
+
+        JobExecution jobExecution = jobRepository.createJobExecution("failingSaveJob", new JobParametersBuilder()
+                .addLong("time", System.currentTimeMillis())
+                .toJobParameters());
+        jobRepository.add(jobExecution.createStepExecution("failingSaveStep"));
+        jobExecution.setStatus(BatchStatus.COMPLETED);
+        jobExecution.setEndTime(new Date());
+
+        //when
+        assertThatThrownBy(() -> jobRepository.update(jobExecution)).isInstanceOf(IllegalStateException.class);
+
+        //then
+        assertThat(jdbcTemplate.queryForObject("select count(*) from batch_job_instance where job_name = ?",
+                Long.class, "failingSaveJob")).isZero();
+    }
+
+    @Test
+    void 메모리에서_실행_중인_같은_JobParameters_는_다시_실행할_수_없다() throws Exception {
+        //given
+        JobRepositoryConfiguration.StoreJobRepositoryFactoryBean factory = new JobRepositoryConfiguration.StoreJobRepositoryFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setTransactionManager(transactionManager);
+        factory.afterPropertiesSet();
+        JobRepository jobRepository = new InMemoryJobRepositoryInterceptor(factory.getObject(), factory.getStoreRepository(),
+                transactionManager, () -> Set.of("duplicateJob")).proxy();
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addLong("time", System.currentTimeMillis())
+                .toJobParameters();
+        JobExecution running = jobRepository.createJobExecution("duplicateJob", jobParameters);
+
+        //when & then
+        assertThatThrownBy(() -> jobRepository.createJobExecution("duplicateJob", jobParameters))
+                .isInstanceOf(JobExecutionAlreadyRunningException.class);
+        assertThat(jobRepository.createJobExecution("duplicateJob", new JobParametersBuilder()
+                .addLong("time", System.currentTimeMillis() + 1)
+                .toJobParameters())).isNotNull();
+
+        running.setStatus(BatchStatus.COMPLETED);
+        running.setEndTime(new Date());
+        jobRepository.update(running);
+        assertThatThrownBy(() -> jobRepository.createJobExecution("duplicateJob", jobParameters))
+                .isInstanceOf(JobInstanceAlreadyCompleteException.class);
+    }
+
+    /**
+     * add(StepExecution) 에서 실패하는 JobRepository
+     */
+    private static JobRepository failOnAdd(JobRepository jobRepository) {
+        return (JobRepository) Proxy.newProxyInstance(JobRepository.class.getClassLoader(), new Class[]{JobRepository.class},
+                (proxy, method, args) -> {
+                    if ("add".equals(method.getName())) {
+                        throw new IllegalStateException("add failed");
+                    }
+                    try {
+                        return method.invoke(jobRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
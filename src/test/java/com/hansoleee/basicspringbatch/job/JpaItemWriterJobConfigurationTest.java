@@ -0,0 +1,82 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.hansoleee.basicspringbatch.TestBatchConfig;
+import com.hansoleee.basicspringbatch.entity.Pay2;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.batch.item.database.JpaItemWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {JpaItemWriterJobConfiguration.class, BatchTaskExecutorConfiguration.class,
+        BatchMetricsConfiguration.class, TestBatchConfig.class})
+@TestPropertySource(properties = { // application.yml 의 pooled-ids 프로필
+        "spring.jpa.mapping-resources=META-INF/orm-pooled-ids.xml",
+        "spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=pooled-lo",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=1000",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class JpaItemWriterJobConfigurationTest {
+
+    static final int CHUNK_SIZE = 1000;
+
+    @Autowired
+    private JpaItemWriter<Pay2> jpaItemWriter;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from pay2");
+    }
+
+    @Test
+    void pooled_ids_프로필이면_1000건_chunk가_batch_INSERT_한번과_sequence_조회로_끝난다() {
+        //given
+        List<Pay2> items = new ArrayList<>(CHUNK_SIZE);
+        for (long i = 1; i <= CHUNK_SIZE; i++) {
+            items.add(new Pay2(i, "trade" + i, LocalDateTime.of(2021, 9, 1, 0, 0)));
+        }
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        //when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try {
+                jpaItemWriter.write(items);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        //then
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(CHUNK_SIZE);
+        // sequence 조회 1번(allocation-size 1000) + INSERT PreparedStatement 1개(batch_size 1000)
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from pay2", Long.class)).isEqualTo(CHUNK_SIZE);
+    }
+}
@@ -0,0 +1,77 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.hansoleee.basicspringbatch.entity.Pay;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedFileItemWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final LocalDateTime txDateTime = LocalDateTime.of(2021, 9, 1, 10, 0, 5);
+
+    @Test
+    void region_을_넘어가도_CSV_로_이어서_쓰고_close_하면_쓴_만큼만_남는다() throws Exception {
+        //given
+        Path file = tempDir.resolve("pay.csv");
+        MappedFileItemWriter<Pay> writer = new MappedFileItemWriter<>(file, ExportRecordEncoders.payCsv());
+        writer.setHeader(ExportRecordEncoders.PAY_CSV_HEADER);
+        writer.setRegionSize(64);
+        writer.open(new ExecutionContext());
+
+        //when
+        writer.write(List.of(
+                new Pay(1L, 1000L, "trade1", txDateTime),
+                new Pay(2L, -25L, "a,\"b\"", txDateTime),
+                new Pay(3L, null, null, null)));
+        writer.close();
+
+        //then
+        assertThat(Files.readAllLines(file, StandardCharsets.UTF_8)).containsExactly(
+                "id,amount,tx_name,tx_date_time",
+                "1,1000,trade1,2021-09-01 10:00:05",
+                "2,-25,\"a,\"\"b\"\"\",2021-09-01 10:00:05",
+                "3,,,");
+    }
+
+    @Test
+    void 재시작하면_마지막_commit_위치로_잘라내고_이어서_쓴다() throws Exception {
+        //given
+        Path file = tempDir.resolve("pay.bin");
+        ExecutionContext executionContext = new ExecutionContext();
+        MappedFileItemWriter<Pay> writer = new MappedFileItemWriter<>(file, ExportRecordEncoders.payBinary());
+        writer.setRegionSize(100);
+        writer.open(executionContext);
+        writer.write(List.of(new Pay(1L, 1000L, "trade1", txDateTime)));
+        writer.update(executionContext);
+        writer.write(List.of(new Pay(2L, 2000L, "lost", txDateTime))); // commit 전에 실패
+
+        //when
+        MappedFileItemWriter<Pay> restarted = new MappedFileItemWriter<>(file, ExportRecordEncoders.payBinary());
+        restarted.setRegionSize(100);
+        restarted.open(executionContext);
+        restarted.write(List.of(new Pay(2L, null, null, null)));
+        restarted.close();
+
+        //then
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        assertThat(buffer.remaining()).isEqualTo(ExportRecordEncoders.PAY_RECORD_SIZE * 2);
+        assertThat(buffer.getLong()).isEqualTo(1L);
+        buffer.position(ExportRecordEncoders.PAY_RECORD_SIZE);
+        assertThat(buffer.getLong()).isEqualTo(2L);
+        assertThat(buffer.getLong()).isEqualTo(ExportRecordEncoders.NULL_LONG);
+        assertThat(buffer.getLong()).isEqualTo(ExportRecordEncoders.NULL_LONG);
+        assertThat(buffer.getShort()).isEqualTo((short) -1);
+    }
+}
@@ -0,0 +1,44 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.hansoleee.basicspringbatch.entity.Pay;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.database.HibernateCursorItemReader;
+import org.springframework.batch.item.database.JpaPagingItemReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MultiThreadedStepTest {
+
+    @Test
+    void stateless_Hibernate_cursor_reader_는_Step_동안_connection_1개를_예약한다() {
+        //given
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(4);
+        BatchTaskExecutorFactory factory = new BatchTaskExecutorFactory(dataSource, BatchTaskExecutorFactory.Mode.PLATFORM,
+                new SimpleMeterRegistry());
+        HibernateCursorItemReader<Pay> reader = new HibernateCursorItemReader<>();
+        reader.setUseStatelessSession(true);
+        MultiThreadedStep.StepResourceListener listener = new MultiThreadedStep.StepResourceListener(factory.getGovernor(),
+                factory.create("statelessReader-", 2), "statelessReader", MultiThreadedStep.readerConnections(reader));
+        StepExecution stepExecution = new StepExecution("step", new JobExecution(1L), 1L);
+
+        //when
+        listener.beforeStep(stepExecution);
+        int reservedDuringStep = factory.getGovernor().getReserved();
+        listener.afterStep(stepExecution);
+
+        //then
+        assertThat(reservedDuringStep).isEqualTo(1);
+        assertThat(factory.getGovernor().getReserved()).isZero();
+        dataSource.close();
+    }
+
+    @Test
+    void paging_reader_는_connection_을_예약하지_않는다() {
+        assertThat(MultiThreadedStep.readerConnections(new JpaPagingItemReader<Pay>())).isZero();
+    }
+}
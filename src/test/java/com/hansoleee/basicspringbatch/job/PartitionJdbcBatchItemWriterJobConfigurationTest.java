@@ -0,0 +1,69 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.hansoleee.basicspringbatch.TestBatchConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {PartitionJdbcBatchItemWriterJobConfiguration.class, RemotePartitionConfiguration.class,
+        BatchTaskExecutorConfiguration.class, BatchMetricsConfiguration.class, TestBatchConfig.class})
+@TestPropertySource(properties = {
+        "remotePartition.worker=true",
+        "remotePartition.timeout=60000"
+})
+class PartitionJdbcBatchItemWriterJobConfigurationTest {
+
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+
+    @Autowired
+    private JobExplorer jobExplorer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from pay2");
+        jdbcTemplate.update("delete from pay");
+    }
+
+    @Test
+    void remote_모드이면_파티션이_채널을_거쳐_Worker에서_실행된다() throws Exception {
+        //given
+        for (long id = 1; id <= 100; id++) {
+            jdbcTemplate.update("insert into pay (id, amount, tx_name, tx_date_time) values (?, ?, ?, ?)",
+                    id, 1000, "trade" + id, "2021-09-01 00:00:00");
+        }
+
+        //when
+        JobExecution jobExecution = jobLauncherTestUtils.launchJob(new JobParametersBuilder()
+                .addString("partitionMode", "remote")
+                .addLong("gridSize", 4L)
+                .toJobParameters());
+
+        //then
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        // remote 모드는 Worker 결과를 JobExplorer 로 다시 읽으므로 jobExecution 의 StepExecution 은 갱신되지 않는다.
+        assertThat(jobExplorer.getJobExecution(jobExecution.getId()).getStepExecutions())
+                .filteredOn(stepExecution -> stepExecution.getStepName().startsWith(PartitionJdbcBatchItemWriterJobConfiguration.BEAN_PREFIX + "workerStep"))
+                .hasSize(4)
+                .extracting(StepExecution::getWriteCount)
+                .containsOnly(25);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from pay2", Long.class)).isEqualTo(100L);
+    }
+}
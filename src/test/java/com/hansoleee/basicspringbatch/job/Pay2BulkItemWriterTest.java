@@ -0,0 +1,88 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.hansoleee.basicspringbatch.entity.Pay;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Pay2BulkItemWriterTest {
+
+    private static final LocalDateTime TX_DATE_TIME = LocalDateTime.of(2021, 9, 1, 13, 30, 15);
+
+    private EmbeddedDatabase dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        this.dataSource = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table pay2 (id bigint auto_increment primary key, amount bigint, tx_name varchar(255), tx_date_time timestamp)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    void H2는_CSVREAD로_적재한다() {
+        assertThat(Pay2BulkItemWriter.Strategy.detect(dataSource)).isEqualTo(Pay2BulkItemWriter.Strategy.CSVREAD);
+    }
+
+    @Test
+    void multi_row_INSERT는_byte_한도로_나누어_모두_적재한다() throws Exception {
+        //given
+        Pay2BulkItemWriter writer = new Pay2BulkItemWriter(dataSource, Pay2BulkItemWriter.Strategy.MULTI_ROW_INSERT, 1000);
+
+        //when
+        writer.write(pays(100));
+
+        //then
+        assertThat(jdbcTemplate.queryForObject("select count(*) from pay2", Long.class)).isEqualTo(100L);
+        assertThat(jdbcTemplate.queryForObject("select sum(amount) from pay2", Long.class)).isEqualTo(5050L);
+    }
+
+    @Test
+    void CSVREAD는_따옴표와_쉼표와_NULL을_그대로_적재한다() throws Exception {
+        //given
+        Pay2BulkItemWriter writer = new Pay2BulkItemWriter(dataSource, Pay2BulkItemWriter.Strategy.CSVREAD);
+        List<Pay> items = List.of(
+                new Pay(1L, 1000L, "trade \"A\", 1", TX_DATE_TIME),
+                new Pay(2L, null, null, null));
+
+        //when
+        writer.write(items);
+
+        //then
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("select amount, tx_name, tx_date_time from pay2 order by id");
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).get("AMOUNT")).isEqualTo(1000L);
+        assertThat(rows.get(0).get("TX_NAME")).isEqualTo("trade \"A\", 1");
+        assertThat(jdbcTemplate.queryForObject("select tx_date_time from pay2 where amount = 1000", LocalDateTime.class)).isEqualTo(TX_DATE_TIME);
+        assertThat(rows.get(1).get("AMOUNT")).isNull();
+        assertThat(rows.get(1).get("TX_NAME")).isNull();
+        assertThat(rows.get(1).get("TX_DATE_TIME")).isNull();
+    }
+
+    private List<Pay> pays(int size) {
+        List<Pay> pays = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            pays.add(new Pay(i, i, "trade" + i, TX_DATE_TIME));
+        }
+        return pays;
+    }
+}
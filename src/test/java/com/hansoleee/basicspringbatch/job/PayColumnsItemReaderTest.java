@@ -0,0 +1,88 @@
+package com.hansoleee.basicspringbatch.job;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PayColumnsItemReaderTest {
+
+    private EmbeddedDatabase dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        this.dataSource = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table pay (id bigint not null primary key, amount bigint, tx_name varchar(255), tx_date_time timestamp)");
+        jdbcTemplate.execute("create table pay2 (id bigint auto_increment primary key, amount bigint, tx_name varchar(255), tx_date_time timestamp)");
+        for (long id = 1; id <= 5; id++) {
+            jdbcTemplate.update("insert into pay (id, amount, tx_name, tx_date_time) values (?, ?, ?, ?)",
+                    id, id * 1000, id % 2 == 0 ? "even" : "odd", "2021-09-01 10:00:0" + id);
+        }
+        jdbcTemplate.update("insert into pay (id, amount, tx_name, tx_date_time) values (6, null, null, null)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    void blockSize_만큼_컬럼으로_읽어서_pay2에_그대로_쓴다() throws Exception {
+        //given
+        PayColumnsItemReader reader = new PayColumnsItemReader(dataSource, 4);
+        PayColumnsItemWriter writer = new PayColumnsItemWriter(dataSource);
+        reader.open(new ExecutionContext());
+
+        //when
+        PayColumns first = reader.read();
+        PayColumns second = reader.read();
+        PayColumns end = reader.read();
+        writer.write(List.of(first, second));
+        reader.close();
+
+        //then
+        assertThat(first.size()).isEqualTo(4);
+        assertThat(first.getDictionarySize()).isEqualTo(2);
+        assertThat(second.size()).isEqualTo(2);
+        assertThat(end).isNull();
+        assertThat(jdbcTemplate.queryForList("select amount, tx_name, tx_date_time from pay2 order by id"))
+                .isEqualTo(jdbcTemplate.queryForList("select amount, tx_name, tx_date_time from pay order by id"));
+    }
+
+    @Test
+    void 재시작하면_마지막으로_읽은_id_다음부터_읽는다() throws Exception {
+        //given
+        ExecutionContext executionContext = new ExecutionContext();
+        PayColumnsItemReader reader = new PayColumnsItemReader(dataSource, 4);
+        reader.open(executionContext);
+        reader.read();
+        reader.update(executionContext);
+        reader.close();
+
+        //when
+        PayColumnsItemReader restarted = new PayColumnsItemReader(dataSource, 4);
+        restarted.open(executionContext);
+        PayColumns columns = restarted.read();
+        restarted.close();
+
+        //then
+        assertThat(columns.size()).isEqualTo(2);
+        assertThat(columns.getId(0)).isEqualTo(5L);
+        assertThat(columns.isAmountNull(1)).isTrue();
+        assertThat(columns.getTxName(1)).isNull();
+        assertThat(columns.isTxDateTimeNull(1)).isTrue();
+    }
+}
@@ -0,0 +1,156 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.hansoleee.basicspringbatch.TestBatchConfig;
+import com.hansoleee.basicspringbatch.entity.Pay;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.batch.test.JobRepositoryTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {JdbcBatchItemWriterJobConfiguration.class, BatchTaskExecutorConfiguration.class,
+        BatchMetricsConfiguration.class, TestBatchConfig.class})
+class PayWatermarkTest {
+
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JobRepositoryTestUtils jobRepositoryTestUtils;
+
+    @BeforeEach
+    void setUp() {
+        jobRepositoryTestUtils = new JobRepositoryTestUtils(jobRepository, dataSource);
+    }
+
+    /**
+     * 이전 incremental 실행을 이어받으므로 테스트마다 실행 이력도 지운다.
+     */
+    @AfterEach
+    void tearDown() {
+        jobRepositoryTestUtils.removeJobExecutions();
+        jdbcTemplate.update("delete from pay2");
+        jdbcTemplate.update("delete from pay");
+    }
+
+    @Test
+    void incremental_실행은_이전_실행_이후에_추가된_pay_만_읽는다() throws Exception {
+        //given
+        insertPays(1, 5);
+        JobExecution first = run("2021-09-01");
+        insertPays(6, 8);
+
+        //when
+        JobExecution second = run("2021-09-02");
+
+        //then
+        assertThat(first.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(first.getStepExecutions().iterator().next().getReadCount()).isEqualTo(5);
+        assertThat(second.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(second.getStepExecutions().iterator().next().getReadCount()).isEqualTo(3);
+        assertThat(second.getExecutionContext().getLong(PayWatermark.FROM)).isEqualTo(5L);
+        assertThat(second.getExecutionContext().getLong(PayWatermark.TO)).isEqualTo(8L);
+    }
+
+    @Test
+    void 실패한_실행을_이어받으면_commit_된_id_다음부터_읽고_실패한_실행은_재시작할_수_없다() throws Exception {
+        //given
+        insertPays(1, 8);
+        JobParameters failedParameters = incremental("2021-09-03");
+        JobExecution failed = jobRepository.createJobExecution(jobLauncherTestUtils.getJob().getName(), failedParameters);
+        failed.getExecutionContext().putLong(PayWatermark.FROM, 0L);
+        failed.getExecutionContext().putLong(PayWatermark.TO, 8L);
+        jobRepository.updateExecutionContext(failed);
+        StepExecution failedStep = failed.createStepExecution("jdbcBatchItemWriterStep");
+        jobRepository.add(failedStep);
+        failedStep.getExecutionContext().putLong(PayWatermark.COMMITTED, 5L);
+        jobRepository.updateExecutionContext(failedStep);
+        failedStep.setStatus(BatchStatus.FAILED);
+        jobRepository.update(failedStep);
+        failed.setStatus(BatchStatus.FAILED);
+        failed.setEndTime(new Date());
+        jobRepository.update(failed);
+
+        //when
+        JobExecution next = run("2021-09-04");
+        JobExecution restarted = jobLauncherTestUtils.launchJob(failedParameters);
+
+        //then
+        assertThat(next.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(next.getExecutionContext().getLong(PayWatermark.FROM)).isEqualTo(5L);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from pay2", Long.class)).isEqualTo(3L);
+        assertThat(next.getStepExecutions().iterator().next().getExecutionContext().getLong(PayWatermark.COMMITTED)).isEqualTo(8L);
+        assertThat(restarted.getStatus()).isEqualTo(BatchStatus.FAILED);
+    }
+
+    @Test
+    void 멀티_쓰레드에서는_commit_되지_않은_id_앞까지만_commit_된_것으로_본다() throws Exception {
+        //given
+        PayWatermark.CommittedIdTracker tracker = new PayWatermark.CommittedIdTracker(0L);
+        ExecutionContext executionContext = new ExecutionContext();
+        tracker.open(executionContext);
+        tracker.afterRead(pay(1));
+        tracker.afterRead(pay(2));
+        tracker.update(executionContext);
+        Thread other = new Thread(() -> tracker.afterRead(pay(3))); // 아직 commit 되지 않은 chunk
+        other.start();
+        other.join();
+
+        //when
+        tracker.afterRead(pay(4));
+        tracker.update(executionContext);
+
+        //then
+        assertThat(executionContext.getLong(PayWatermark.COMMITTED)).isEqualTo(2L);
+    }
+
+    private static Pay pay(long id) {
+        return new Pay(id, id * 1000, "trade" + id, LocalDateTime.of(2021, 9, 1, 10, 0));
+    }
+
+    private static JobParameters incremental(String runDate) {
+        return new JobParametersBuilder()
+                .addString("incremental", "true")
+                .addString("runDate", runDate)
+                .toJobParameters();
+    }
+
+    private void insertPays(long fromId, long toId) {
+        for (long id = fromId; id <= toId; id++) {
+            jdbcTemplate.update("insert into pay (id, amount, tx_name, tx_date_time) values (?, ?, ?, ?)",
+                    id, id * 1000, "trade" + id, "2021-09-01 10:00:00");
+        }
+    }
+
+    private JobExecution run(String runDate) throws Exception {
+        return jobLauncherTestUtils.launchJob(incremental(runDate));
+    }
+}
@@ -0,0 +1,59 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.hansoleee.basicspringbatch.TestBatchConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {ProcessorCompositeJobConfiguration.class, TestBatchConfig.class})
+@TestPropertySource(properties = {
+        "chunkSize=3",
+        "remoteChunking.worker=true",
+        "remoteChunking.pollInterval=10"
+})
+class ProcessorCompositeJobConfigurationTest {
+
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from teacher");
+    }
+
+    @Test
+    void remote_chunking이면_compositeProcessor와_writer를_Worker가_실행한다() throws Exception {
+        //given
+        for (long id = 1; id <= 10; id++) {
+            jdbcTemplate.update("insert into teacher (teacher_id, name) values (?, ?)", id, "teacher" + id);
+        }
+
+        //when
+        JobExecution jobExecution = jobLauncherTestUtils.launchJob(new JobParametersBuilder()
+                .addString("chunking", "remote")
+                .addLong("maxOutstandingChunks", 2L)
+                .toJobParameters());
+
+        //then
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        StepExecution stepExecution = jobExecution.getStepExecutions().iterator().next();
+        assertThat(stepExecution.getReadCount()).isEqualTo(10);
+        assertThat(stepExecution.getExecutionContext().getLong(RemoteChunkingStep.WRITE_COUNT)).isEqualTo(10L);
+    }
+}
@@ -0,0 +1,101 @@
+package com.hansoleee.basicspringbatch.job;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.integration.chunk.ChunkRequest;
+import org.springframework.batch.integration.chunk.ChunkResponse;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.handler.ServiceActivatingHandler;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.messaging.Message;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RemoteChunkingStepTest {
+
+    private EmbeddedDatabase dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private final QueueChannel replies = new QueueChannel();
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table item (name varchar(255) not null)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    void Worker_의_writer_가_중간에_실패하면_chunk_전체가_rollback_된다() throws Exception {
+        //given
+        ServiceActivatingHandler worker = worker(items -> {
+            for (String item : items) {
+                if ("c".equals(item)) {
+                    throw new IllegalStateException("write failed: " + item);
+                }
+                jdbcTemplate.update("insert into item (name) values (?)", item);
+            }
+        });
+
+        //when
+        ChunkResponse response = send(worker, List.of("a", "b", "c", "d"));
+
+        //then
+        assertThat(response.isSuccessful()).isFalse();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from item", Long.class)).isZero();
+    }
+
+    @Test
+    void Worker_가_성공하면_chunk_가_commit_된다() throws Exception {
+        //given
+        ServiceActivatingHandler worker = worker(items -> {
+            for (String item : items) {
+                jdbcTemplate.update("insert into item (name) values (?)", item);
+            }
+        });
+
+        //when
+        ChunkResponse response = send(worker, List.of("a", "b"));
+
+        //then
+        assertThat(response.isSuccessful()).isTrue();
+        assertThat(response.getStepContribution().getWriteCount()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from item", Long.class)).isEqualTo(2L);
+    }
+
+    private ServiceActivatingHandler worker(ItemWriter<String> writer) {
+        ServiceActivatingHandler worker = RemoteChunkingStep.worker(item -> item, writer, replies,
+                new DataSourceTransactionManager(dataSource));
+        worker.setBeanFactory(new DefaultListableBeanFactory());
+        worker.afterPropertiesSet();
+        return worker;
+    }
+
+    private ChunkResponse send(ServiceActivatingHandler worker, List<String> items) {
+        StepContribution contribution = new StepExecution("step", new JobExecution(1L), 1L).createStepContribution();
+        worker.handleMessage(MessageBuilder.withPayload(new ChunkRequest<>(0, items, 1L, contribution)).build());
+        Message<?> reply = replies.receive(1000);
+        assertThat(reply).isNotNull();
+        return (ChunkResponse) reply.getPayload();
+    }
+}
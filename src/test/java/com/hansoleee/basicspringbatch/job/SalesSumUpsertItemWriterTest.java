@@ -0,0 +1,67 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.hansoleee.basicspringbatch.entity.SalesSum;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SalesSumUpsertItemWriterTest {
+
+    private EmbeddedDatabase dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate orderDate = LocalDate.of(2021, 9, 11);
+
+    @BeforeEach
+    void setUp() {
+        this.dataSource = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table sales_sum (id bigint auto_increment primary key, order_date date, amount_sum bigint not null, " +
+                "constraint uk_sales_sum_order_date unique (order_date))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    void 같은_날짜를_다시_쓰면_덮어쓰고_INSERT_UPDATE_건수를_저장한다() throws Exception {
+        //given
+        SalesSumUpsertItemWriter writer = new SalesSumUpsertItemWriter(dataSource);
+        StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+        writer.beforeStep(stepExecution);
+        writer.write(List.of(salesSum(orderDate, 1000), salesSum(orderDate.plusDays(1), 500)));
+
+        //when
+        writer.write(List.of(salesSum(orderDate, 1500), salesSum(orderDate.plusDays(2), 100)));
+        writer.afterStep(stepExecution);
+
+        //then
+        assertThat(jdbcTemplate.queryForList("select amount_sum from sales_sum order by order_date", Long.class))
+                .containsExactly(1500L, 500L, 100L);
+        assertThat(stepExecution.getExecutionContext().getLong(SalesSumUpsertItemWriter.INSERT_COUNT)).isEqualTo(3L);
+        assertThat(stepExecution.getExecutionContext().getLong(SalesSumUpsertItemWriter.UPDATE_COUNT)).isEqualTo(1L);
+    }
+
+    private SalesSum salesSum(LocalDate orderDate, long amountSum) {
+        return SalesSum.builder()
+                .orderDate(orderDate)
+                .amountSum(amountSum)
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.hansoleee.basicspringbatch.job;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SkipUnchangedExecutionContextInterceptorTest {
+
+    private final AtomicInteger updates = new AtomicInteger();
+    private final SkipUnchangedExecutionContextInterceptor interceptor = new SkipUnchangedExecutionContextInterceptor();
+    private final JobRepository jobRepository = interceptor.proxy(countingJobRepository());
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void 트랜잭션이_없으면_바뀌지_않은_ExecutionContext_는_UPDATE_하지_않는다() {
+        //given
+        StepExecution stepExecution = stepExecution();
+        stepExecution.getExecutionContext().putInt("reader.read.count", 10);
+
+        //when
+        jobRepository.updateExecutionContext(stepExecution);
+        jobRepository.updateExecutionContext(stepExecution);
+
+        //then
+        assertThat(updates.get()).isEqualTo(1);
+        assertThat(interceptor.getSkippedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void 바뀐_ExecutionContext_는_UPDATE_한다() {
+        //given
+        StepExecution stepExecution = stepExecution();
+        stepExecution.getExecutionContext().putInt("reader.read.count", 10);
+        jobRepository.updateExecutionContext(stepExecution);
+
+        //when
+        stepExecution.getExecutionContext().putInt("reader.read.count", 20);
+        jobRepository.updateExecutionContext(stepExecution);
+
+        //then
+        assertThat(updates.get()).isEqualTo(2);
+        assertThat(interceptor.getSkippedCount()).isEqualTo(0);
+    }
+
+    @Test
+    void commit_된_뒤에만_저장된_내용으로_기억한다() {
+        //given
+        StepExecution stepExecution = stepExecution();
+        stepExecution.getExecutionContext().putInt("reader.read.count", 10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        //when
+        jobRepository.updateExecutionContext(stepExecution);
+        jobRepository.updateExecutionContext(stepExecution); // commit 전이므로 다시 UPDATE
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        jobRepository.updateExecutionContext(stepExecution);
+
+        //then
+        assertThat(updates.get()).isEqualTo(2);
+        assertThat(interceptor.getSkippedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void rollback_된_UPDATE_는_저장된_것으로_보지_않는다() {
+        //given
+        StepExecution stepExecution = stepExecution();
+        stepExecution.getExecutionContext().putInt("reader.read.count", 10);
+        TransactionSynchronizationManager.initSynchronization();
+        jobRepository.updateExecutionContext(stepExecution);
+
+        //when
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+        jobRepository.updateExecutionContext(stepExecution);
+
+        //then
+        assertThat(updates.get()).isEqualTo(2);
+        assertThat(interceptor.getSkippedCount()).isEqualTo(0);
+    }
+
+    private static StepExecution stepExecution() {
+        return new StepExecution("step", new JobExecution(1L), 1L);
+    }
+
+    /**
+     * updateExecutionContext 호출 횟수만 세는 JobRepository
+     */
+    private JobRepository countingJobRepository() {
+        return (JobRepository) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{JobRepository.class},
+                (proxy, method, args) -> {
+                    if ("updateExecutionContext".equals(method.getName())) {
+                        updates.incrementAndGet();
+                    }
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,43 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.hansoleee.basicspringbatch.TestBatchConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {StepSplitJobConfiguration.class, BatchTaskExecutorConfiguration.class,
+        BatchMetricsConfiguration.class, TestBatchConfig.class})
+class StepSplitJobConfigurationTest {
+
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+
+    @Test
+    void branches_파라미터의_branch_만_동시에_실행하고_join_한다() throws Exception {
+        //when
+        JobExecution jobExecution = jobLauncherTestUtils.launchJob(new JobParametersBuilder()
+                .addString(ParallelFlows.BRANCHES_PARAMETER, "a,b")
+                .addLong("time", System.currentTimeMillis())
+                .toJobParameters());
+
+        //then
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(jobExecution.getStepExecutions().stream().map(StepExecution::getStepName).collect(Collectors.toList()))
+                .containsExactlyInAnyOrder("splitStartStep", "splitStep01", "splitStep02", "splitStep03", "joinStep");
+        assertThat(jobExecution.getExecutionContext().containsKey(ParallelFlows.timingKey("a"))).isTrue();
+        assertThat(jobExecution.getExecutionContext().containsKey(ParallelFlows.timingKey("b"))).isTrue();
+        assertThat(jobExecution.getExecutionContext().containsKey(ParallelFlows.timingKey("c"))).isFalse();
+    }
+}
@@ -0,0 +1,127 @@
+package com.hansoleee.basicspringbatch.job;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SynchronizedRestartableItemReaderTest {
+
+    private ExecutorService threadA;
+    private ExecutorService threadB;
+
+    @BeforeEach
+    void setUp() {
+        threadA = Executors.newSingleThreadExecutor();
+        threadB = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        threadA.shutdownNow();
+        threadB.shutdownNow();
+    }
+
+    @Test
+    void 늦게_읽은_chunk가_먼저_commit_되어도_재시작시_commit_안된_item만_다시_읽는다() throws Exception {
+        //given
+        ExecutionContext executionContext = new ExecutionContext();
+        SynchronizedRestartableItemReader<Integer> reader = new SynchronizedRestartableItemReader<>(new NumberReader(10), "numbers");
+        reader.open(executionContext);
+
+        run(threadA, () -> List.of(reader.read(), reader.read()));
+        run(threadB, () -> List.of(reader.read(), reader.read()));
+
+        //when: B 쓰레드의 chunk(2, 3)만 commit 되고 A 쓰레드의 chunk(0, 1)는 실패
+        run(threadB, () -> {
+            reader.update(executionContext);
+            return null;
+        });
+        reader.close();
+
+        SynchronizedRestartableItemReader<Integer> restarted = new SynchronizedRestartableItemReader<>(new NumberReader(10), "numbers");
+        restarted.open(executionContext);
+
+        //then
+        assertThat(executionContext.getLong("numbers.committed.count")).isEqualTo(0L);
+        assertThat(executionContext.getString("numbers.committed.after")).isEqualTo("2,3");
+        assertThat(readAll(restarted)).containsExactly(0, 1, 4, 5, 6, 7, 8, 9);
+    }
+
+    @Test
+    void commit된_앞쪽_item들은_committed_count로_합쳐진다() throws Exception {
+        //given
+        ExecutionContext executionContext = new ExecutionContext();
+        SynchronizedRestartableItemReader<Integer> reader = new SynchronizedRestartableItemReader<>(new NumberReader(10), "numbers");
+        reader.open(executionContext);
+
+        run(threadA, () -> List.of(reader.read(), reader.read()));
+        run(threadB, () -> List.of(reader.read(), reader.read()));
+
+        //when
+        run(threadB, () -> {
+            reader.update(executionContext);
+            return null;
+        });
+        run(threadA, () -> {
+            reader.update(executionContext);
+            return null;
+        });
+        reader.close();
+
+        SynchronizedRestartableItemReader<Integer> restarted = new SynchronizedRestartableItemReader<>(new NumberReader(10), "numbers");
+        restarted.open(executionContext);
+
+        //then
+        assertThat(executionContext.getLong("numbers.committed.count")).isEqualTo(4L);
+        assertThat(executionContext.getString("numbers.committed.after")).isEmpty();
+        assertThat(readAll(restarted)).containsExactly(4, 5, 6, 7, 8, 9);
+    }
+
+    private <T> T run(ExecutorService thread, Callable<T> task) throws Exception {
+        return thread.submit(task).get();
+    }
+
+    private List<Integer> readAll(SynchronizedRestartableItemReader<Integer> reader) throws Exception {
+        List<Integer> items = new ArrayList<>();
+        Integer item;
+        while ((item = reader.read()) != null) {
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static class NumberReader extends AbstractItemCountingItemStreamItemReader<Integer> {
+
+        private final int size;
+        private int next;
+
+        private NumberReader(int size) {
+            this.size = size;
+            setName("numberReader");
+        }
+
+        @Override
+        protected Integer doRead() {
+            return next < size ? next++ : null;
+        }
+
+        @Override
+        protected void doOpen() {
+            next = 0;
+        }
+
+        @Override
+        protected void doClose() {
+        }
+    }
+}
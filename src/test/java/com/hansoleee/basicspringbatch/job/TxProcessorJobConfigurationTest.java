@@ -0,0 +1,89 @@
+package com.hansoleee.basicspringbatch.job;
+
+import com.hansoleee.basicspringbatch.TestBatchConfig;
+import com.hansoleee.basicspringbatch.entity.ClassInformation;
+import com.hansoleee.basicspringbatch.entity.Teacher;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {TxProcessorJobConfiguration.class, TestBatchConfig.class})
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "chunkSize=" + TxProcessorJobConfigurationTest.CHUNK_SIZE
+})
+class TxProcessorJobConfigurationTest {
+
+    static final int CHUNK_SIZE = 10;
+
+    @Autowired
+    private TxProcessorJobConfiguration configuration;
+
+    @Autowired
+    @Qualifier(TxProcessorJobConfiguration.BEAN_PREFIX + "reader")
+    private JpaKeysetItemReader<Teacher> reader;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from student");
+        jdbcTemplate.update("delete from teacher");
+    }
+
+    @Test
+    void chunk마다_chunkSize와_관계없이_2번의_쿼리만_실행된다() throws Exception {
+        //given
+        int studentsPerTeacher = 5;
+        saveTeachers(CHUNK_SIZE * 3, studentsPerTeacher);
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        ItemProcessor<Teacher, ClassInformation> processor = configuration.processor();
+        reader.open(new ExecutionContext());
+
+        //when & then
+        for (int chunk = 0; chunk < 3; chunk++) {
+            statistics.clear();
+
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                ClassInformation classInformation = processor.process(reader.read());
+                assertThat(classInformation.getTheNumberOfStudents()).isEqualTo(studentsPerTeacher);
+            }
+
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        }
+        assertThat(reader.read()).isNull();
+        reader.close();
+    }
+
+    private void saveTeachers(int teacherCount, int studentsPerTeacher) {
+        long studentId = 1;
+        for (long teacherId = 1; teacherId <= teacherCount; teacherId++) {
+            jdbcTemplate.update("insert into teacher (teacher_id, name) values (?, ?)", teacherId, "teacher" + teacherId);
+            for (int i = 0; i < studentsPerTeacher; i++) {
+                jdbcTemplate.update("insert into student (student_id, name, teacher_id) values (?, ?, ?)",
+                        studentId, "student" + studentId, teacherId);
+                studentId++;
+            }
+        }
+    }
+}